@@ -1,11 +1,18 @@
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Arrays;
 import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.TreeSet;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.Future;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.Semaphore;
+import java.util.stream.IntStream;
 
 /**
  * 第 1 章实验 A：并发收益边界（CPU 密集 vs 等待密集）。
@@ -19,10 +26,17 @@ import java.util.concurrent.Future;
  *   java ConcurrencyBenefits --mode cpu --tasks 200 --threads 8 --work 4000000
  *   java ConcurrencyBenefits --mode io  --tasks 200 --threads 8 --sleepMs 20
  *   java ConcurrencyBenefits --mode io  --tasks 200 --virtual true --sleepMs 20
+ *   java ConcurrencyBenefits --mode cpu --tasks 64 --work 2000000 --sweep 1,2,4,8,16
+ *   java ConcurrencyBenefits --mode cpu --tasks 256 --work 200000 --executor forkjoin --granularity 8
+ *   java ConcurrencyBenefits --mode cpu --tasks 256 --work 200000 --uneven true --granularity 1,8,64
+ *   java ConcurrencyBenefits --mode mix --tasks 400 --work 500000 --sleepMs 5 --dist pareto:1.2 --seed 7 --executor all
  */
 public class ConcurrencyBenefits {
     enum Mode { CPU, IO, MIX }
 
+    /** 并发执行方式：固定线程池、每任务一个虚拟线程、ForkJoin 递归拆分、并行流。 */
+    enum ExecutorKind { FIXED, VIRTUAL, FORKJOIN, STREAMS }
+
     /**
      * 主方法：解析命令行参数，执行顺序和并发任务，并输出性能对比结果。
      * 
@@ -42,9 +56,24 @@ public class ConcurrencyBenefits {
         
         // 打印当前运行配置信息
         System.out.printf(Locale.ROOT,
-                "mode=%s tasks=%d threads=%d virtual=%s work=%d sleepMs=%d warmup=%d%n",
-                config.mode, config.tasks, config.threads, config.useVirtualThreads,
-                config.work, config.sleepMs, config.warmupRounds);
+                "mode=%s tasks=%d threads=%d executor=%s work=%d sleepMs=%d dist=%s seed=%d granularity=%s warmup=%d%n",
+                config.mode, config.tasks, config.threads,
+                config.compareExecutors ? "all" : config.executor.name().toLowerCase(Locale.ROOT),
+                config.work, config.sleepMs, config.workload.spec, config.seed, config.granularities,
+                config.warmupRounds);
+
+        if (!config.sweep.isEmpty()) {
+            sweep(config);
+            return;
+        }
+        if (config.granularities.size() > 1) {
+            compareGranularity(config);
+            return;
+        }
+        if (config.compareExecutors) {
+            compareExecutors(config);
+            return;
+        }
 
         // 预热 JVM 以获得更准确的性能测试结果
         warmup(config);
@@ -88,25 +117,26 @@ public class ConcurrencyBenefits {
      * @throws Exception 如果在任务执行过程中发生异常
      */
     private static long timeSequential(Config config) throws Exception {
+        Run run = runSequential(config);
+
+        // 输出顺序执行的校验和
+        System.out.printf(Locale.ROOT, "sequential checksum=%d%n", run.checksum());
+        
+        // 返回顺序执行耗时
+        return run.nanos();
+    }
+
+    private static Run runSequential(Config config) throws Exception {
+        long[] completedAt = new long[config.tasks];
+
         // 记录顺序执行开始时间
         long start = System.nanoTime();
-        
-        // 初始化校验和
-        long checksum = 0;
-        
+
         // 依次执行每个任务，并将结果累加到校验和中
-        for (int i = 0; i < config.tasks; i++) {
-            checksum += doWork(config, i);
-        }
-        
+        long checksum = doRange(config, 0, config.tasks, completedAt);
+
         // 计算顺序执行总耗时
-        long elapsed = System.nanoTime() - start;
-        
-        // 输出顺序执行的校验和
-        System.out.printf(Locale.ROOT, "sequential checksum=%d%n", checksum);
-        
-        // 返回顺序执行耗时
-        return elapsed;
+        return Run.of(start, System.nanoTime(), checksum, -1, completedAt);
     }
 
 
@@ -114,8 +144,8 @@ public class ConcurrencyBenefits {
      * 测量并发执行任务所需的时间。
      * 
      * 执行流程：
-     * 1. 根据配置决定使用虚拟线程还是固定线程池创建ExecutorService。
-     * 2. 创建与任务数相等的Callable任务列表。
+     * 1. 根据配置选择固定线程池、虚拟线程、ForkJoin 或并行流。
+     * 2. 按粒度把任务分组（每组 granularity 个任务）。
      * 3. 记录开始时间，提交所有任务并等待它们完成。
      * 4. 收集所有任务的结果并计算校验和。
      * 5. 计算并返回总耗时。
@@ -125,20 +155,74 @@ public class ConcurrencyBenefits {
      * @throws Exception 如果在任务执行过程中发生异常
      */
     private static long timeConcurrent(Config config) throws Exception {
-        // 根据配置选择创建虚拟线程或固定大小线程池的执行器
-        ExecutorService executor = config.useVirtualThreads
-                ? Executors.newVirtualThreadPerTaskExecutor()
-                : Executors.newFixedThreadPool(config.threads);
+        Run run = runWith(config, config.executor, config.granularities.get(0));
+
+        // 输出并发执行的校验和
+        System.out.printf(Locale.ROOT, "concurrent checksum=%d%n", run.checksum());
+
+        // 返回并发执行耗时
+        return run.nanos();
+    }
 
+    /**
+     * 一次执行的耗时、校验和、ForkJoin 的窃取次数（其他方式为 -1），
+     * 以及每个任务从批次开始到完成的时间（按任务编号）。
+     */
+    private record Run(long nanos, long checksum, long steals, long[] completions) {
+        static Run of(long start, long end, long checksum, long steals, long[] completedAt) {
+            for (int i = 0; i < completedAt.length; i++) completedAt[i] -= start;
+            return new Run(end - start, checksum, steals, completedAt);
+        }
+
+        /** 任务完成时间的分位（纳秒）。 */
+        long completionPercentile(double quantile) {
+            long[] sorted = completions.clone();
+            Arrays.sort(sorted);
+            int index = (int) Math.ceil(quantile * sorted.length) - 1;
+            return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+        }
+    }
+
+    private static Run runWith(Config config, ExecutorKind kind, int granularity) throws Exception {
+        return switch (kind) {
+            case FIXED -> runConcurrent(config, Executors.newFixedThreadPool(config.threads), null, granularity);
+            case VIRTUAL -> runConcurrent(config, Executors.newVirtualThreadPerTaskExecutor(), null, granularity);
+            case FORKJOIN -> runForkJoin(config, granularity);
+            case STREAMS -> runParallelStream(config, granularity);
+        };
+    }
+
+    /**
+     * 把全部任务交给 executor 执行并等待完成，执行结束后关闭 executor。
+     *
+     * @param limit 非空时每个任务先拿一个许可，用来把“每任务一个虚拟线程”的并发度限制为许可数
+     * @param granularity 每个提交单元顺序执行的任务数；任务按编号连续分组
+     */
+    private static Run runConcurrent(Config config, ExecutorService executor, Semaphore limit, int granularity)
+            throws Exception {
         // 使用try-with-resources确保executor在使用完毕后能正确关闭
         try (executor) {
-            // 初始化任务列表，容量为任务总数
-            List<Callable<Long>> callables = new ArrayList<>(config.tasks);
+            long[] completedAt = new long[config.tasks];
+
+            // 初始化任务列表，每 granularity 个任务合成一个提交单元
+            List<Callable<Long>> callables = new ArrayList<>(config.tasks / granularity + 1);
             
-            // 为每个任务创建一个Callable实例，并添加到列表中
-            for (int i = 0; i < config.tasks; i++) {
-                final int id = i;
-                callables.add(() -> doWork(config, id));
+            // 为每组任务创建一个Callable实例，并添加到列表中
+            for (int i = 0; i < config.tasks; i += granularity) {
+                final int from = i;
+                final int to = Math.min(config.tasks, i + granularity);
+                if (limit == null) {
+                    callables.add(() -> doRange(config, from, to, completedAt));
+                } else {
+                    callables.add(() -> {
+                        limit.acquire();
+                        try {
+                            return doRange(config, from, to, completedAt);
+                        } finally {
+                            limit.release();
+                        }
+                    });
+                }
             }
 
             // 记录并发执行开始时间
@@ -156,13 +240,276 @@ public class ConcurrencyBenefits {
             }
             
             // 计算并发执行总耗时
-            long elapsed = System.nanoTime() - start;
-            
-            // 输出并发执行的校验和
-            System.out.printf(Locale.ROOT, "concurrent checksum=%d%n", checksum);
-            
-            // 返回并发执行耗时
-            return elapsed;
+            return Run.of(start, System.nanoTime(), checksum, -1, completedAt);
+        }
+    }
+
+    /**
+     * ForkJoin 工作窃取：对任务编号区间递归二分，区间不超过 granularity 时顺序执行。
+     * 空闲工作线程会从别的线程的双端队列尾部窃取尚未执行的子区间，不均匀的工作量因此能被摊平。
+     */
+    private static Run runForkJoin(Config config, int granularity) {
+        ForkJoinPool pool = new ForkJoinPool(config.threads);
+        try {
+            long[] completedAt = new long[config.tasks];
+            long start = System.nanoTime();
+            long checksum = pool.invoke(new RangeTask(config, 0, config.tasks, granularity, completedAt));
+            return Run.of(start, System.nanoTime(), checksum, pool.getStealCount(), completedAt);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * 并行流：以 granularity 个任务为一个元素，由 Spliterator 拆分。
+     * 在专用的 ForkJoinPool 里执行终端操作，并行度与 {@code --threads} 一致，而不是公共池。
+     */
+    private static Run runParallelStream(Config config, int granularity) throws Exception {
+        ForkJoinPool pool = new ForkJoinPool(config.threads);
+        try {
+            int chunks = (config.tasks + granularity - 1) / granularity;
+            long[] completedAt = new long[config.tasks];
+            long start = System.nanoTime();
+            long checksum = pool.submit(() -> IntStream.range(0, chunks).parallel()
+                    .mapToLong(c -> doRangeUnchecked(config, c * granularity,
+                            Math.min(config.tasks, (c + 1) * granularity), completedAt))
+                    .sum()).get();
+            return Run.of(start, System.nanoTime(), checksum, pool.getStealCount(), completedAt);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    static final class RangeTask extends RecursiveTask<Long> {
+        private final Config config;
+        private final int from;
+        private final int to;
+        private final int granularity;
+        private final long[] completedAt;
+
+        RangeTask(Config config, int from, int to, int granularity, long[] completedAt) {
+            this.config = config;
+            this.from = from;
+            this.to = to;
+            this.granularity = granularity;
+            this.completedAt = completedAt;
+        }
+
+        @Override
+        protected Long compute() {
+            if (to - from <= granularity) return doRangeUnchecked(config, from, to, completedAt);
+            int mid = (from + to) >>> 1;
+            RangeTask left = new RangeTask(config, from, mid, granularity, completedAt);
+            left.fork();
+            long right = new RangeTask(config, mid, to, granularity, completedAt).compute();
+            return right + left.join();
+        }
+    }
+
+    /**
+     * 粒度对比：同一批任务分别交给固定线程池、ForkJoin、并行流，在每个粒度下取 3 次测量的中位数，
+     * 与顺序执行对比加速比。粒度小则拆分/调度开销大，粒度大则不均匀工作下容易出现拖尾。
+     */
+    private static void compareGranularity(Config config) throws Exception {
+        for (int w = 0; w < config.warmupRounds; w++) timeSequential(config);
+        long[] sequential = new long[SWEEP_REPEATS];
+        for (int r = 0; r < SWEEP_REPEATS; r++) sequential[r] = timeSequential(config);
+        Arrays.sort(sequential);
+        long baseline = sequential[SWEEP_REPEATS / 2];
+
+        System.out.printf(Locale.ROOT, "%n%12s %10s %10s %10s %9s %10s%n",
+                "granularity", "executor", "units", "time", "speedup", "steals");
+        System.out.printf(Locale.ROOT, "%12s %10s %10d %10s %8.2fx %10s%n",
+                "-", "sequential", config.tasks, fmt(baseline), 1.0, "-");
+        ExecutorKind[] kinds = {ExecutorKind.FIXED, ExecutorKind.FORKJOIN, ExecutorKind.STREAMS};
+        for (int granularity : config.granularities) {
+            for (ExecutorKind kind : kinds) {
+                for (int w = 0; w < config.warmupRounds; w++) runWith(config, kind, granularity);
+                Run[] runs = new Run[SWEEP_REPEATS];
+                for (int r = 0; r < SWEEP_REPEATS; r++) runs[r] = runWith(config, kind, granularity);
+                Arrays.sort(runs, (a, b) -> Long.compare(a.nanos(), b.nanos()));
+                Run median = runs[SWEEP_REPEATS / 2];
+                System.out.printf(Locale.ROOT, "%12d %10s %10d %10s %8.2fx %10s%n",
+                        granularity, kind.name().toLowerCase(Locale.ROOT),
+                        (config.tasks + granularity - 1) / granularity, fmt(median.nanos()),
+                        (double) baseline / median.nanos(), median.steals() < 0 ? "-" : median.steals());
+            }
+        }
+    }
+
+    /**
+     * 可扩展性扫描：并发度从 1 扫到 N，平台线程（固定线程池）与虚拟线程（信号量限流）各跑一遍，
+     * 再用 Amdahl 定律与通用可扩展性定律（USL）拟合吞吐曲线。
+     *
+     * USL：C(N) = N / (1 + σ(N-1) + κN(N-1))
+     * - σ（contention）：排队/串行部分，使加速比趋于 1/σ 的上限（κ=0 时即 Amdahl）；
+     * - κ（coherency）：线程之间两两同步（缓存一致性、锁交接）的代价，使吞吐越过峰值后反而下降；
+     * - 峰值并发 N* = sqrt((1-σ)/κ)，可作为线程池大小的参考上限。
+     *
+     * 每个并发度先按 {@code --warmup} 预热，再取 {@link #SWEEP_REPEATS} 次测量的中位数。
+     */
+    private static void sweep(Config config) throws Exception {
+        System.out.printf(Locale.ROOT, "sweep=%s cpus=%d repeats=%d%n",
+                config.sweep, Runtime.getRuntime().availableProcessors(), SWEEP_REPEATS);
+        Long expectedChecksum = null;
+        for (boolean virtual : new boolean[]{false, true}) {
+            String label = virtual ? "virtual" : "platform";
+            int points = config.sweep.size();
+            double[] n = new double[points];
+            double[] throughput = new double[points];
+            long[] nanos = new long[points];
+            for (int i = 0; i < points; i++) {
+                int concurrency = config.sweep.get(i);
+                for (int w = 0; w < config.warmupRounds; w++) sweepRun(config, concurrency, virtual);
+                long[] samples = new long[SWEEP_REPEATS];
+                for (int r = 0; r < SWEEP_REPEATS; r++) {
+                    Run run = sweepRun(config, concurrency, virtual);
+                    if (expectedChecksum == null) expectedChecksum = run.checksum();
+                    if (run.checksum() != expectedChecksum) {
+                        throw new IllegalStateException("checksum mismatch at " + label + " N=" + concurrency);
+                    }
+                    samples[r] = run.nanos();
+                }
+                Arrays.sort(samples);
+                n[i] = concurrency;
+                nanos[i] = samples[SWEEP_REPEATS / 2];
+                throughput[i] = config.tasks * 1e9 / nanos[i];
+            }
+
+            UslFit usl = UslFit.fit(n, throughput);
+            UslFit amdahl = UslFit.fitAmdahl(n, throughput);
+            System.out.printf(Locale.ROOT, "%n[%s]%n%8s %10s %14s %9s %11s %10s%n",
+                    label, "N", "time", "tasks/s", "speedup", "efficiency", "usl-pred");
+            for (int i = 0; i < points; i++) {
+                double speedup = throughput[i] / throughput[0];
+                System.out.printf(Locale.ROOT, "%8d %10s %14.1f %8.2fx %10.1f%% %9.2fx%n",
+                        (int) n[i], fmt(nanos[i]), throughput[i], speedup, speedup / n[i] * 100,
+                        usl.speedup(n[i]));
+            }
+            System.out.printf(Locale.ROOT, "amdahl: serial=%.4f maxSpeedup=%s%n",
+                    amdahl.sigma(), amdahl.sigma() > 0 ? String.format(Locale.ROOT, "%.1fx", 1 / amdahl.sigma()) : "unbounded");
+            System.out.printf(Locale.ROOT, "usl:    sigma=%.4f kappa=%.6f r2=%.3f%n", usl.sigma(), usl.kappa(), usl.r2());
+            if (usl.kappa() > 0) {
+                double peak = usl.peakConcurrency();
+                System.out.printf(Locale.ROOT, "usl:    peak N*=%.1f predictedMax=%.1f tasks/s (%.2fx)%n",
+                        peak, throughput[0] * usl.speedup(peak), usl.speedup(peak));
+            } else {
+                System.out.println("usl:    kappa=0, no throughput peak within the model (bounded only by sigma)");
+            }
+        }
+    }
+
+    private static final int SWEEP_REPEATS = 3;
+
+    /**
+     * 执行方式对比：同一组（同一 seed 生成的）任务依次交给顺序、固定线程池、虚拟线程、ForkJoin、并行流，
+     * 除总耗时外还输出任务完成时间的 p50/p99/max。
+     *
+     * 偏斜分布下，p50 反映短任务是否被排在长任务后面（队头阻塞），max 与 p99 的差距反映拖尾任务。
+     */
+    private static void compareExecutors(Config config) throws Exception {
+        Workload workload = config.workload;
+        System.out.printf(Locale.ROOT, "workload: maxTask=%.1fx mean, top1%%=%.1f%% of work, top10%%=%.1f%% of work%n",
+                workload.max(), workload.topShare(0.01) * 100, workload.topShare(0.10) * 100);
+
+        int granularity = config.granularities.get(0);
+        System.out.printf(Locale.ROOT, "%n%10s %10s %9s %10s %10s %10s %10s%n",
+                "executor", "time", "speedup", "p50(ms)", "p99(ms)", "max(ms)", "steals");
+        long baseline = 0;
+        for (ExecutorKind kind : new ExecutorKind[]{null, ExecutorKind.FIXED, ExecutorKind.VIRTUAL,
+                ExecutorKind.FORKJOIN, ExecutorKind.STREAMS}) {
+            for (int w = 0; w < config.warmupRounds; w++) {
+                if (kind == null) runSequential(config); else runWith(config, kind, granularity);
+            }
+            Run[] runs = new Run[SWEEP_REPEATS];
+            for (int r = 0; r < SWEEP_REPEATS; r++) {
+                runs[r] = kind == null ? runSequential(config) : runWith(config, kind, granularity);
+            }
+            Arrays.sort(runs, (a, b) -> Long.compare(a.nanos(), b.nanos()));
+            Run median = runs[SWEEP_REPEATS / 2];
+            if (kind == null) baseline = median.nanos();
+            System.out.printf(Locale.ROOT, "%10s %10s %8.2fx %10.1f %10.1f %10.1f %10s%n",
+                    kind == null ? "sequential" : kind.name().toLowerCase(Locale.ROOT), fmt(median.nanos()),
+                    (double) baseline / median.nanos(), median.completionPercentile(0.50) / 1e6,
+                    median.completionPercentile(0.99) / 1e6, median.completionPercentile(1.0) / 1e6,
+                    median.steals() < 0 ? "-" : median.steals());
+        }
+    }
+
+    private static Run sweepRun(Config config, int concurrency, boolean virtual) throws Exception {
+        if (virtual) {
+            return runConcurrent(config, Executors.newVirtualThreadPerTaskExecutor(), new Semaphore(concurrency), 1);
+        }
+        return runConcurrent(config, Executors.newFixedThreadPool(concurrency), null, 1);
+    }
+
+    /**
+     * 对相对吞吐 C(N) = X(N)/X(1) 做 USL 最小二乘拟合。
+     *
+     * 线性化：N/C(N) - 1 = σ(N-1) + κN(N-1)，对 σ、κ 解 2×2 正规方程；
+     * 系数为负时视为 0 并对另一个系数单独重解（负的 σ/κ 没有物理意义）。
+     */
+    record UslFit(double sigma, double kappa, double r2) {
+        static UslFit fit(double[] n, double[] throughput) {
+            double sxx = 0, sxw = 0, sww = 0, sxy = 0, swy = 0;
+            for (int i = 0; i < n.length; i++) {
+                double x = n[i] - 1;
+                double w = n[i] * (n[i] - 1);
+                double y = linearized(n[i], throughput[i] / throughput[0]);
+                sxx += x * x;
+                sxw += x * w;
+                sww += w * w;
+                sxy += x * y;
+                swy += w * y;
+            }
+            double det = sxx * sww - sxw * sxw;
+            double sigma = det == 0 ? 0 : (sxy * sww - swy * sxw) / det;
+            double kappa = det == 0 ? 0 : (swy * sxx - sxy * sxw) / det;
+            if (sigma < 0) {
+                sigma = 0;
+                kappa = sww == 0 ? 0 : Math.max(0, swy / sww);
+            } else if (kappa < 0) {
+                kappa = 0;
+                sigma = sxx == 0 ? 0 : Math.max(0, sxy / sxx);
+            }
+            sigma = Math.min(1, sigma);
+            return new UslFit(sigma, kappa, rSquared(n, throughput, sigma, kappa));
+        }
+
+        /** κ 固定为 0 的拟合，σ 即 Amdahl 定律里的串行比例。 */
+        static UslFit fitAmdahl(double[] n, double[] throughput) {
+            double sxx = 0, sxy = 0;
+            for (int i = 0; i < n.length; i++) {
+                double x = n[i] - 1;
+                sxx += x * x;
+                sxy += x * linearized(n[i], throughput[i] / throughput[0]);
+            }
+            double sigma = sxx == 0 ? 0 : Math.min(1, Math.max(0, sxy / sxx));
+            return new UslFit(sigma, 0, rSquared(n, throughput, sigma, 0));
+        }
+
+        double speedup(double n) {
+            return n / (1 + sigma * (n - 1) + kappa * n * (n - 1));
+        }
+
+        double peakConcurrency() {
+            return kappa > 0 ? Math.max(1, Math.sqrt((1 - sigma) / kappa)) : Double.POSITIVE_INFINITY;
+        }
+
+        private static double linearized(double n, double relative) {
+            return n / relative - 1;
+        }
+
+        /** 在原始吞吐尺度上计算决定系数，便于判断模型是否可信。 */
+        private static double rSquared(double[] n, double[] throughput, double sigma, double kappa) {
+            double mean = Arrays.stream(throughput).average().orElse(0);
+            double ssRes = 0, ssTot = 0;
+            for (int i = 0; i < n.length; i++) {
+                double predicted = throughput[0] * n[i] / (1 + sigma * (n[i] - 1) + kappa * n[i] * (n[i] - 1));
+                ssRes += (throughput[i] - predicted) * (throughput[i] - predicted);
+                ssTot += (throughput[i] - mean) * (throughput[i] - mean);
+            }
+            return ssTot == 0 ? 1 : 1 - ssRes / ssTot;
         }
     }
 
@@ -176,21 +523,127 @@ public class ConcurrencyBenefits {
      * @throws Exception 如果在执行工作任务时发生异常
      */
     private static long doWork(Config config, int id) throws Exception {
+        double cost = config.workload.multiplier(id);
+        long work = (long) (config.work * cost);
+        long sleepNanos = (long) (config.sleepMs * 1_000_000L * cost);
         return switch (config.mode) {
             // CPU密集型：执行指定迭代次数的计算任务
-            case CPU -> cpuWork(config.work, id);
+            case CPU -> cpuWork(work, id);
             // IO密集型：执行指定时间的睡眠模拟IO等待
-            case IO -> ioWork(config.sleepMs, id);
+            case IO -> ioWork(sleepNanos, id);
             // 混合型：执行少量计算任务和睡眠等待的组合
-            case MIX -> cpuWork(config.work / 5, id) + ioWork(config.sleepMs, id);
+            case MIX -> cpuWork(work / 5, id) + ioWork(sleepNanos, id);
         };
     }
 
-    private static long ioWork(int sleepMs, int id) throws InterruptedException {
-        if (sleepMs > 0) Thread.sleep(sleepMs);
+    /**
+     * 顺序执行编号 [from, to) 的任务并累加结果。
+     *
+     * @param completedAt 记录每个任务完成时的 {@code nanoTime}；各任务编号只由一个线程写入
+     */
+    private static long doRange(Config config, int from, int to, long[] completedAt) throws Exception {
+        long checksum = 0;
+        for (int i = from; i < to; i++) {
+            checksum += doWork(config, i);
+            completedAt[i] = System.nanoTime();
+        }
+        return checksum;
+    }
+
+    /** ForkJoin/并行流里不能抛受检异常，中断时恢复中断标记后包装抛出。 */
+    private static long doRangeUnchecked(Config config, int from, int to, long[] completedAt) {
+        try {
+            return doRange(config, from, to, completedAt);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static long ioWork(long sleepNanos, int id) throws InterruptedException {
+        if (sleepNanos > 0) Thread.sleep(Duration.ofNanos(sleepNanos));
         return id;
     }
 
+    /**
+     * 任务成本分布：每个任务的计算量与 IO 等待都乘以同一个倍数，倍数均值归一为 1，
+     * 所以不同分布的总工作量相同，只是分布形状不同。由 seed 决定，可复现。
+     *
+     * - uniform：全部为 1（默认）；
+     * - ramp：按编号从约 0 线性增到 2（等价于 {@code --uneven true}）；
+     * - zipf[:s]：把 1..tasks 的名次随机打乱，倍数正比于 1/rank^s（默认 s=1），少数任务极重；
+     * - pareto[:alpha]：重尾分布（默认 alpha=1.5），alpha 越小尾巴越重；
+     * - bimodal[:p[:factor]]：以概率 p 成为慢任务，慢 factor 倍（默认 0.1、10）。
+     */
+    static final class Workload {
+        final String spec;
+        private final double[] multipliers;
+
+        private Workload(String spec, double[] multipliers) {
+            this.spec = spec;
+            this.multipliers = multipliers;
+        }
+
+        static Workload of(String spec, int tasks, long seed) {
+            String[] parts = spec.toLowerCase(Locale.ROOT).split(":");
+            SplittableRandom random = new SplittableRandom(seed);
+            double[] m = new double[tasks];
+            switch (parts[0]) {
+                case "uniform" -> Arrays.fill(m, 1.0);
+                case "ramp" -> {
+                    for (int i = 0; i < tasks; i++) m[i] = 2.0 * (i + 1) / (tasks + 1);
+                }
+                case "zipf" -> {
+                    double s = parts.length > 1 ? Double.parseDouble(parts[1]) : 1.0;
+                    int[] ranks = IntStream.rangeClosed(1, tasks).toArray();
+                    for (int i = tasks - 1; i > 0; i--) {
+                        int j = random.nextInt(i + 1);
+                        int t = ranks[i];
+                        ranks[i] = ranks[j];
+                        ranks[j] = t;
+                    }
+                    for (int i = 0; i < tasks; i++) m[i] = 1.0 / Math.pow(ranks[i], s);
+                }
+                case "pareto" -> {
+                    double alpha = parts.length > 1 ? Double.parseDouble(parts[1]) : 1.5;
+                    if (alpha <= 0) throw new IllegalArgumentException("pareto alpha must be > 0");
+                    for (int i = 0; i < tasks; i++) m[i] = 1.0 / Math.pow(1.0 - random.nextDouble(), 1.0 / alpha);
+                }
+                case "bimodal" -> {
+                    double p = parts.length > 1 ? Double.parseDouble(parts[1]) : 0.1;
+                    double factor = parts.length > 2 ? Double.parseDouble(parts[2]) : 10.0;
+                    if (p < 0 || p > 1 || factor <= 0) throw new IllegalArgumentException("bimodal needs 0<=p<=1, factor>0");
+                    for (int i = 0; i < tasks; i++) m[i] = random.nextDouble() < p ? factor : 1.0;
+                }
+                default -> throw new IllegalArgumentException("Unknown --dist " + spec
+                        + " (expected uniform, ramp, zipf[:s], pareto[:alpha], bimodal[:p[:factor]])");
+            }
+            double mean = Arrays.stream(m).average().orElse(1.0);
+            for (int i = 0; i < tasks; i++) m[i] /= mean;
+            return new Workload(spec, m);
+        }
+
+        double multiplier(int id) {
+            return multipliers[id];
+        }
+
+        double max() {
+            return Arrays.stream(multipliers).max().orElse(1.0);
+        }
+
+        /** 最重的 fraction 比例的任务占总工作量的比例。 */
+        double topShare(double fraction) {
+            double[] sorted = multipliers.clone();
+            Arrays.sort(sorted);
+            int count = Math.max(1, (int) Math.round(sorted.length * fraction));
+            double top = 0;
+            for (int i = sorted.length - count; i < sorted.length; i++) top += sorted[i];
+            return top / sorted.length;
+        }
+    }
+
     /**
      * 执行CPU密集型工作，通过异或运算和位移操作模拟计算密集任务
      * 
@@ -235,33 +688,55 @@ public class ConcurrencyBenefits {
         final int tasks;
         /** 并发线程数 */
         final int threads;
-        /** 是否启用虚拟线程 */
-        final boolean useVirtualThreads;
+        /** 并发执行方式 */
+        final ExecutorKind executor;
         /** CPU工作量（迭代次数）*/
         final long work;
         /** IO等待时间（毫秒）*/
         final int sleepMs;
         /** 预热轮次，用于JVM预热以获得更准确的性能数据 */
         final int warmupRounds;
+        /** 扫描的并发度（升序，含 1）；为空表示不扫描 */
+        final List<Integer> sweep;
+        /** 每个提交单元包含的任务数；多个值时进入粒度对比 */
+        final List<Integer> granularities;
+        /** 是否在一次运行里对比所有执行方式（{@code --executor all}） */
+        final boolean compareExecutors;
+        /** 任务成本分布的随机种子 */
+        final long seed;
+        /** 每个任务的成本倍数 */
+        final Workload workload;
 
         /**
          * 私有构造函数，防止外部直接实例化
          * @param mode 运行模式
          * @param tasks 任务数量
          * @param threads 线程数
-         * @param useVirtualThreads 是否使用虚拟线程
+         * @param executor 并发执行方式
          * @param work 工作量
          * @param sleepMs 睡眠时间
          * @param warmupRounds 预热轮次
+         * @param sweep 扫描的并发度
+         * @param granularities 任务分组粒度
+         * @param compareExecutors 是否对比所有执行方式
+         * @param seed 随机种子
+         * @param workload 任务成本分布
          */
-        private Config(Mode mode, int tasks, int threads, boolean useVirtualThreads, long work, int sleepMs, int warmupRounds) {
+        private Config(Mode mode, int tasks, int threads, ExecutorKind executor, long work, int sleepMs, int warmupRounds,
+                       List<Integer> sweep, List<Integer> granularities, boolean compareExecutors, long seed,
+                       Workload workload) {
             this.mode = mode;
             this.tasks = tasks;
             this.threads = threads;
-            this.useVirtualThreads = useVirtualThreads;
+            this.executor = executor;
             this.work = work;
             this.sleepMs = sleepMs;
             this.warmupRounds = warmupRounds;
+            this.sweep = sweep;
+            this.granularities = granularities;
+            this.compareExecutors = compareExecutors;
+            this.seed = seed;
+            this.workload = workload;
         }
 
         /**
@@ -274,10 +749,15 @@ public class ConcurrencyBenefits {
             Mode mode = Mode.IO;
             int tasks = 200;
             int threads = Math.max(2, Runtime.getRuntime().availableProcessors());
-            boolean virtual = false;
+            ExecutorKind executor = ExecutorKind.FIXED;
             long work = 4_000_000L;
             int sleepMs = 20;
             int warmup = 1;
+            List<Integer> sweep = List.of();
+            List<Integer> granularities = List.of(1);
+            boolean compareExecutors = false;
+            String dist = "uniform";
+            long seed = 42;
 
             // 解析命令行参数
             for (int i = 0; i < args.length; i++) {
@@ -298,7 +778,34 @@ public class ConcurrencyBenefits {
                         i++;
                     }
                     case "--virtual" -> {
-                        virtual = Boolean.parseBoolean(requireValue(a, v));
+                        // 兼容旧参数：等价于 --executor virtual
+                        if (Boolean.parseBoolean(requireValue(a, v))) executor = ExecutorKind.VIRTUAL;
+                        i++;
+                    }
+                    case "--executor" -> {
+                        String kind = requireValue(a, v);
+                        compareExecutors = kind.equalsIgnoreCase("all");
+                        if (!compareExecutors) executor = ExecutorKind.valueOf(kind.toUpperCase(Locale.ROOT));
+                        i++;
+                    }
+                    case "--granularity" -> {
+                        granularities = new ArrayList<>();
+                        for (String g : requireValue(a, v).split(",")) {
+                            granularities.add(Integer.parseInt(g.trim().replace("_", "")));
+                        }
+                        i++;
+                    }
+                    case "--uneven" -> {
+                        // 兼容参数：等价于 --dist ramp
+                        if (Boolean.parseBoolean(requireValue(a, v))) dist = "ramp";
+                        i++;
+                    }
+                    case "--dist" -> {
+                        dist = requireValue(a, v);
+                        i++;
+                    }
+                    case "--seed" -> {
+                        seed = Long.parseLong(requireValue(a, v).replace("_", ""));
                         i++;
                     }
                     case "--work" -> {
@@ -313,6 +820,10 @@ public class ConcurrencyBenefits {
                         warmup = Integer.parseInt(requireValue(a, v).replace("_", ""));
                         i++;
                     }
+                    case "--sweep" -> {
+                        sweep = parseSweep(requireValue(a, v));
+                        i++;
+                    }
                     default -> {
                         // 忽略未知标志以保持演示轻量级
                     }
@@ -326,7 +837,31 @@ public class ConcurrencyBenefits {
             if (sleepMs < 0) throw new IllegalArgumentException("--sleepMs must be >= 0");
             if (warmup < 0) throw new IllegalArgumentException("--warmup must be >= 0");
 
-            return new Config(mode, tasks, threads, virtual, work, sleepMs, warmup);
+            for (int g : granularities) {
+                if (g <= 0) throw new IllegalArgumentException("--granularity must be > 0");
+            }
+
+            return new Config(mode, tasks, threads, executor, work, sleepMs, warmup, sweep,
+                    List.copyOf(granularities), compareExecutors, seed, Workload.of(dist, tasks, seed));
+        }
+
+        /**
+         * 解析 {@code --sweep}：逗号列表（如 {@code 1,2,4,8}）原样使用；单个值 N 展开为 1,2,4,...,N。
+         * 总会补上 1 作为基准点。
+         */
+        private static List<Integer> parseSweep(String spec) {
+            TreeSet<Integer> points = new TreeSet<>();
+            points.add(1);
+            if (spec.contains(",")) {
+                for (String p : spec.split(",")) points.add(Integer.parseInt(p.trim().replace("_", "")));
+            } else {
+                int max = Integer.parseInt(spec.trim().replace("_", ""));
+                for (int p = 1; p < max; p *= 2) points.add(p);
+                points.add(max);
+            }
+            if (points.first() <= 0) throw new IllegalArgumentException("--sweep values must be > 0");
+            if (points.size() < 3) throw new IllegalArgumentException("--sweep needs at least 3 points to fit USL");
+            return List.copyOf(points);
         }
 
         /**
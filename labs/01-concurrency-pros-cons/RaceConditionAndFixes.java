@@ -1,10 +1,17 @@
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Locale;
+import java.util.TreeSet;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
 import java.util.concurrent.atomic.LongAdder;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * 第 1 章实验 B：数据竞争（++）与修复方案对比。
@@ -12,10 +19,12 @@ import java.util.concurrent.atomic.AtomicInteger;
  * 观察重点：
  * - 共享变量的 i++ 不是原子操作：多线程下会丢失更新
  * - 修复方式：synchronized / AtomicInteger / LongAdder（高争用吞吐更好，但语义不同）
+ * - {@code --shootout}：按线程数扫描各种计数器实现的吞吐（ops/s）与并发读取的代价（ns/read）
  *
  * 运行示例：
  *   javac --release 21 RaceConditionAndFixes.java
  *   java RaceConditionAndFixes --threads 8 --iterations 2000000
+ *   java RaceConditionAndFixes --shootout 1,2,4,8 --iterations 2000000
  */
 public class RaceConditionAndFixes {
     /**
@@ -28,6 +37,7 @@ public class RaceConditionAndFixes {
         // 默认线程数为CPU核心数（至少为2），默认迭代次数为200万
         int threads = Math.max(2, Runtime.getRuntime().availableProcessors());
         int iterations = 2_000_000;
+        List<Integer> shootout = List.of();
 
         // 解析命令行参数
         for (int i = 0; i < args.length; i++) {
@@ -42,11 +52,20 @@ public class RaceConditionAndFixes {
                     iterations = Integer.parseInt(requireValue(a, v).replace("_", ""));
                     i++;
                 }
+                case "--shootout" -> {
+                    shootout = parseThreadCounts(requireValue(a, v));
+                    i++;
+                }
                 default -> {
                 }
             }
         }
 
+        if (!shootout.isEmpty()) {
+            runShootout(shootout, iterations);
+            return;
+        }
+
         // 计算期望值：线程数 × 迭代次数
         long expected = (long) threads * (long) iterations;
         System.out.printf(Locale.ROOT, "threads=%d iterations=%d expected=%d%n", threads, iterations, expected);
@@ -158,6 +177,241 @@ public class RaceConditionAndFixes {
                 actual, (actual == expected), r.elapsedMillis);
     }
 
+    /**
+     * 计数器争用对比：每个线程数下，依次让各实现承受 threads 个写线程的 increment，
+     * 同时由一个独立的读线程不断调用 get()，模拟指标采集在写入高峰时读取计数。
+     *
+     * - ops/s：写线程总的 increment 吞吐；
+     * - ns/read：读线程单次 get() 的平均耗时（LongAdder/条带需要求和所有 cell，锁实现要和写线程抢锁）；
+     * - ok：写线程全部结束后 get() 是否等于期望值。
+     *
+     * @param threadCounts 要扫描的写线程数
+     * @param iterations 每个写线程的 increment 次数
+     */
+    private static void runShootout(List<Integer> threadCounts, int iterations) throws Exception {
+        System.out.printf(Locale.ROOT, "shootout threads=%s iterations=%d cpus=%d%n",
+                threadCounts, iterations, Runtime.getRuntime().availableProcessors());
+        System.out.printf(Locale.ROOT, "%8s %-14s %14s %10s %6s%n", "threads", "counter", "ops/s", "ns/read", "ok");
+        for (int threads : threadCounts) {
+            for (String name : COUNTERS) {
+                // 预热一轮（十分之一迭代次数），让 JIT 编译 increment/get
+                measure(newCounter(name, threads), threads, Math.max(1, iterations / 10));
+                Counter counter = newCounter(name, threads);
+                Measurement m = measure(counter, threads, iterations);
+                long expected = (long) threads * iterations;
+                System.out.printf(Locale.ROOT, "%8d %-14s %14.0f %10.1f %6s%n",
+                        threads, name, expected * 1e9 / m.writeNanos(), m.nanosPerRead(), counter.get() == expected);
+            }
+        }
+    }
+
+    private static final List<String> COUNTERS = List.of(
+            "synchronized", "reentrantLock", "atomicLong", "longAdder", "striped", "threadLocal");
+
+    private static Counter newCounter(String name, int threads) {
+        return switch (name) {
+            case "synchronized" -> new SynchronizedCounter();
+            case "reentrantLock" -> new LockCounter();
+            case "atomicLong" -> new AtomicCounter();
+            case "longAdder" -> new AdderCounter();
+            case "striped" -> new StripedCounter(threads);
+            case "threadLocal" -> new ThreadLocalCounter(1024);
+            default -> throw new IllegalArgumentException("Unknown counter " + name);
+        };
+    }
+
+    /** 写线程总耗时，以及并发读线程的读取次数与耗时。 */
+    record Measurement(long writeNanos, long reads, long readNanos) {
+        double nanosPerRead() {
+            return reads == 0 ? Double.NaN : (double) readNanos / reads;
+        }
+    }
+
+    private static volatile long readSink;
+
+    private static Measurement measure(Counter counter, int threads, int iterations) throws Exception {
+        AtomicBoolean stop = new AtomicBoolean();
+        long[] readStats = new long[2];
+        Thread reader = Thread.ofPlatform().name("counter-reader").start(() -> {
+            long reads = 0;
+            long sum = 0;
+            long begin = System.nanoTime();
+            while (!stop.get()) {
+                sum += counter.get();
+                reads++;
+            }
+            readStats[0] = reads;
+            readStats[1] = System.nanoTime() - begin;
+            readSink = sum;
+        });
+        Result r = run(threads, () -> {
+            for (int i = 0; i < iterations; i++) counter.increment();
+            counter.flush();
+        });
+        stop.set(true);
+        reader.join();
+        return new Measurement(r.elapsedNanos, readStats[0], readStats[1]);
+    }
+
+    /** 对比用的计数器抽象：increment 由写线程调用，get 可在任意时刻调用。 */
+    interface Counter {
+        void increment();
+
+        long get();
+
+        /** 写线程结束前调用，把线程私有的未合并部分写回共享计数。 */
+        default void flush() {
+        }
+    }
+
+    static final class SynchronizedCounter implements Counter {
+        private long value;
+
+        @Override
+        public synchronized void increment() {
+            value++;
+        }
+
+        @Override
+        public synchronized long get() {
+            return value;
+        }
+    }
+
+    static final class LockCounter implements Counter {
+        private final ReentrantLock lock = new ReentrantLock();
+        private long value;
+
+        @Override
+        public void increment() {
+            lock.lock();
+            try {
+                value++;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public long get() {
+            lock.lock();
+            try {
+                return value;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    static final class AtomicCounter implements Counter {
+        private final AtomicLong value = new AtomicLong();
+
+        @Override
+        public void increment() {
+            value.incrementAndGet();
+        }
+
+        @Override
+        public long get() {
+            return value.get();
+        }
+    }
+
+    static final class AdderCounter implements Counter {
+        private final LongAdder value = new LongAdder();
+
+        @Override
+        public void increment() {
+            value.increment();
+        }
+
+        @Override
+        public long get() {
+            return value.sum();
+        }
+    }
+
+    /**
+     * 手写条带：按线程 id 散列到若干个 cell，每个 cell 独占 128 字节（相邻 cell 不共享缓存行）。
+     *
+     * JDK 的 {@code @Contended} 属于 jdk.internal，应用代码使用需要 --add-exports 与 -XX:-RestrictContended，
+     * 这里用 AtomicLongArray 按 16 个 long 的步长取下标来达到同样的填充效果（数组元素布局是连续且固定的）。
+     */
+    static final class StripedCounter implements Counter {
+        private static final int STRIDE = 16;
+        private final AtomicLongArray cells;
+        private final int mask;
+
+        StripedCounter(int threads) {
+            int stripes = Integer.highestOneBit(Math.max(1, threads * 2 - 1));
+            this.cells = new AtomicLongArray(stripes * STRIDE);
+            this.mask = stripes - 1;
+        }
+
+        @Override
+        public void increment() {
+            long id = Thread.currentThread().threadId();
+            int stripe = (int) ((id * 0x9E3779B97F4A7C15L) >>> 40) & mask;
+            cells.getAndIncrement(stripe * STRIDE);
+        }
+
+        @Override
+        public long get() {
+            long sum = 0;
+            for (int i = 0; i <= mask; i++) sum += cells.get(i * STRIDE);
+            return sum;
+        }
+    }
+
+    /**
+     * 线程本地累加，每 mergeEvery 次合并一次到共享的 AtomicLong。
+     * 写入几乎不争用；代价是读到的值最多落后 threads × mergeEvery，且线程结束前必须 flush。
+     */
+    static final class ThreadLocalCounter implements Counter {
+        private final AtomicLong merged = new AtomicLong();
+        private final ThreadLocal<long[]> pending = ThreadLocal.withInitial(() -> new long[1]);
+        private final int mergeEvery;
+
+        ThreadLocalCounter(int mergeEvery) {
+            this.mergeEvery = mergeEvery;
+        }
+
+        @Override
+        public void increment() {
+            long[] local = pending.get();
+            if (++local[0] == mergeEvery) {
+                merged.addAndGet(local[0]);
+                local[0] = 0;
+            }
+        }
+
+        @Override
+        public long get() {
+            return merged.get();
+        }
+
+        @Override
+        public void flush() {
+            long[] local = pending.get();
+            merged.addAndGet(local[0]);
+            local[0] = 0;
+        }
+    }
+
+    /** 逗号列表原样使用；单个值 N 展开为 1,2,4,...,N。 */
+    private static List<Integer> parseThreadCounts(String spec) {
+        TreeSet<Integer> counts = new TreeSet<>();
+        if (spec.contains(",")) {
+            for (String p : spec.split(",")) counts.add(Integer.parseInt(p.trim().replace("_", "")));
+        } else {
+            int max = Integer.parseInt(spec.trim().replace("_", ""));
+            for (int p = 1; p < max; p *= 2) counts.add(p);
+            counts.add(max);
+        }
+        if (counts.first() <= 0) throw new IllegalArgumentException("--shootout values must be > 0");
+        return new ArrayList<>(counts);
+    }
+
     /**
      * 执行多线程任务的核心方法
      * 
@@ -198,10 +452,10 @@ public class RaceConditionAndFixes {
             start.countDown();
             // 等待所有线程完成（最多等待60秒）
             if (!done.await(60, TimeUnit.SECONDS)) throw new IllegalStateException("Timeout waiting for tasks");
-            // 计算执行时间（毫秒）
-            long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - begin);
+            // 计算执行时间（纳秒与毫秒）
+            long elapsedNanos = System.nanoTime() - begin;
             // 返回包含执行时间的结果
-            return new Result(elapsedMillis);
+            return new Result(TimeUnit.NANOSECONDS.toMillis(elapsedNanos), elapsedNanos);
         }
     }
 
@@ -234,6 +488,7 @@ public class RaceConditionAndFixes {
      * 结果记录类，用于存储执行时间
      * 
      * @param elapsedMillis 执行时间（毫秒）
+     * @param elapsedNanos 执行时间（纳秒），用于计算吞吐
      */
-    record Result(long elapsedMillis) {}
+    record Result(long elapsedMillis, long elapsedNanos) {}
 }
@@ -0,0 +1,279 @@
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * 发布路径压力检查：持续、大量地发布新对象，统计读线程观察到“构造不完整”对象的次数与比例。
+ *
+ * VolatilePublishDemo / FinalFieldVisibilityDemo 每次迭代新建一对线程，一秒只能试几千次，能否复现全凭运气；
+ * 这里写线程不停地把新对象写进一个槽位数组，多个读线程不停地扫描整个数组并校验字段，每秒可以检查数千万次。
+ *
+ * 配置：
+ * - holder-plain / holder-volatile：{@code Holder(a, b)} 经普通或 volatile 数组槽发布（对应 VolatilePublishDemo）；
+ * - final-holder / plain-holder：{@code FinalHolder} 与 {@code PlainHolder} 经普通槽发布（对应 FinalFieldVisibilityDemo）；
+ * - start-join：写线程 start 后写字段、主线程 join 后读（对应 StartJoinHappensBeforeDemo），作为“有 happens-before”的对照。
+ *
+ * 对象构造完成后所有字段都等于发布序号 seq（seq 从 1 开始），读到 0 或字段之间不一致就记为 torn。
+ * guarantee=hb 的配置出现 torn、guarantee=final 的配置出现 finalValue=0 即为 VIOLATION；
+ * 其余 torn 是数据竞争允许的结果（RACE OBSERVED）。x86 的 TSO 几乎不会把字段写与引用写重排，
+ * torn 多半是 0；在 ARM/POWER 等弱内存序机器上更容易观察到。
+ *
+ * 运行示例：
+ *   javac PublicationStressDemo.java
+ *   java PublicationStressDemo
+ *   java PublicationStressDemo --timeMs 5000 --readers 3 holder
+ */
+public class PublicationStressDemo {
+    private static final VarHandle SLOTS = MethodHandles.arrayElementVarHandle(Object[].class);
+
+    /** observe 的返回值：槽位为空、完整对象、构造不完整（可再叠加 FINAL_DEFAULT）。 */
+    private static final int EMPTY = 0;
+    private static final int OK = 1;
+    private static final int TORN = 2;
+    /** 名为 finalValue 的字段读到了默认值（无论它是否真的声明为 final）。 */
+    private static final int FINAL_DEFAULT = 4;
+
+    static final class Holder {
+        int a;
+        int b;
+
+        Holder(int a, int b) {
+            this.a = a;
+            this.b = b;
+        }
+    }
+
+    static final class FinalHolder {
+        final int finalValue;
+        int plainValue;
+
+        FinalHolder(int seq) {
+            this.finalValue = seq;
+            this.plainValue = seq;
+        }
+    }
+
+    static final class PlainHolder {
+        int finalValue;
+        int plainValue;
+
+        PlainHolder(int seq) {
+            this.finalValue = seq;
+            this.plainValue = seq;
+        }
+    }
+
+    /** 一种发布方式：写线程调用 publish，读线程调用 observe。 */
+    interface Publication {
+        String name();
+
+        /** "hb"：JMM 保证读到完整对象；"final"：只保证 finalValue 已初始化；"none"：存在数据竞争。 */
+        String guarantee();
+
+        void publish(Object[] slots, int slot, int seq);
+
+        int observe(Object[] slots, int slot);
+    }
+
+    static List<Publication> publications() {
+        List<Publication> list = new ArrayList<>();
+        list.add(new Publication() {
+            public String name() { return "holder-plain"; }
+            public String guarantee() { return "none"; }
+            public void publish(Object[] slots, int slot, int seq) { slots[slot] = new Holder(seq, seq); }
+            public int observe(Object[] slots, int slot) { return checkHolder(slots[slot]); }
+        });
+        list.add(new Publication() {
+            public String name() { return "holder-volatile"; }
+            public String guarantee() { return "hb"; }
+            public void publish(Object[] slots, int slot, int seq) { SLOTS.setVolatile(slots, slot, new Holder(seq, seq)); }
+            public int observe(Object[] slots, int slot) { return checkHolder(SLOTS.getVolatile(slots, slot)); }
+        });
+        list.add(new Publication() {
+            public String name() { return "final-holder"; }
+            // 只有 finalValue 受 final 语义保护，plainValue 仍可能读到默认值
+            public String guarantee() { return "final"; }
+            public void publish(Object[] slots, int slot, int seq) { slots[slot] = new FinalHolder(seq); }
+            public int observe(Object[] slots, int slot) {
+                if (!(slots[slot] instanceof FinalHolder h)) return EMPTY;
+                return check(h.finalValue, h.plainValue);
+            }
+        });
+        list.add(new Publication() {
+            public String name() { return "plain-holder"; }
+            public String guarantee() { return "none"; }
+            public void publish(Object[] slots, int slot, int seq) { slots[slot] = new PlainHolder(seq); }
+            public int observe(Object[] slots, int slot) {
+                if (!(slots[slot] instanceof PlainHolder h)) return EMPTY;
+                return check(h.finalValue, h.plainValue);
+            }
+        });
+        return list;
+    }
+
+    private static int checkHolder(Object o) {
+        if (!(o instanceof Holder h)) return EMPTY;
+        int a = h.a;
+        int b = h.b;
+        return a == 0 || b == 0 || a != b ? TORN : OK;
+    }
+
+    private static int check(int finalValue, int plainValue) {
+        int result = finalValue == 0 || plainValue == 0 || finalValue != plainValue ? TORN : OK;
+        return finalValue == 0 ? result | FINAL_DEFAULT : result;
+    }
+
+    private static volatile boolean running;
+
+    public static void main(String[] args) throws Exception {
+        long timeMs = 2_000;
+        int readers = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+        int slotCount = 1024;
+        Pattern include = null;
+        for (int i = 0; i < args.length; i++) {
+            String a = args[i];
+            String v = (i + 1 < args.length) ? args[i + 1] : null;
+            switch (a) {
+                case "--timeMs" -> {
+                    timeMs = Long.parseLong(requireValue(a, v).replace("_", ""));
+                    i++;
+                }
+                case "--readers" -> {
+                    readers = Integer.parseInt(requireValue(a, v));
+                    i++;
+                }
+                case "--slots" -> {
+                    slotCount = Integer.parseInt(requireValue(a, v).replace("_", ""));
+                    i++;
+                }
+                default -> {
+                    if (a.startsWith("--")) throw new IllegalArgumentException("Unknown option " + a);
+                    include = Pattern.compile(a);
+                }
+            }
+        }
+        if (timeMs <= 0 || readers <= 0 || slotCount <= 0) {
+            throw new IllegalArgumentException("--timeMs, --readers and --slots must be > 0");
+        }
+
+        System.out.printf(Locale.ROOT, "timeMs=%d readers=%d slots=%d cpus=%d arch=%s%n",
+                timeMs, readers, slotCount, Runtime.getRuntime().availableProcessors(), System.getProperty("os.arch"));
+        System.out.printf(Locale.ROOT, "%-16s %-9s %14s %16s %10s %12s %14s  %s%n",
+                "config", "guarantee", "published/s", "observations", "torn", "torn-rate", "finalValue=0", "verdict");
+
+        boolean violation = false;
+        for (Publication p : publications()) {
+            if (include != null && !include.matcher(p.name()).find()) continue;
+            violation |= report(p.name(), p.guarantee(), stress(p, timeMs, readers, slotCount));
+        }
+        if (include == null || include.matcher("start-join").find()) {
+            violation |= report("start-join", "hb", startJoin(timeMs));
+        }
+        if (violation) System.exit(1);
+    }
+
+    /** published、observations、torn、finalDefault，以及实际耗时。 */
+    record Counts(long published, long observations, long torn, long finalDefault, long nanos) {
+    }
+
+    private static Counts stress(Publication p, long timeMs, int readerCount, int slotCount) throws InterruptedException {
+        Object[] slots = new Object[slotCount];
+        long[][] perReader = new long[readerCount][3];
+        long[] published = new long[1];
+        running = true;
+
+        Thread writer = Thread.ofPlatform().name(p.name() + "-writer").start(() -> {
+            int seq = 0;
+            long count = 0;
+            while (running) {
+                for (int slot = 0; slot < slotCount; slot++) {
+                    // seq 溢出回绕时跳过 0，保证完整对象的字段永远不是默认值
+                    if (++seq == 0) seq = 1;
+                    p.publish(slots, slot, seq);
+                }
+                count += slotCount;
+            }
+            published[0] = count;
+        });
+        List<Thread> readers = new ArrayList<>();
+        for (int r = 0; r < readerCount; r++) {
+            long[] counts = perReader[r];
+            readers.add(Thread.ofPlatform().name(p.name() + "-reader-" + r).start(() -> {
+                long observations = 0;
+                long torn = 0;
+                long finalDefault = 0;
+                // running 是 volatile 读：每轮扫描都重新从内存读槽位，JIT 不能把普通读提到循环外
+                while (running) {
+                    for (int slot = 0; slot < slotCount; slot++) {
+                        int result = p.observe(slots, slot);
+                        if (result == EMPTY) continue;
+                        observations++;
+                        if ((result & TORN) != 0) torn++;
+                        if ((result & FINAL_DEFAULT) != 0) finalDefault++;
+                    }
+                }
+                counts[0] = observations;
+                counts[1] = torn;
+                counts[2] = finalDefault;
+            }));
+        }
+
+        long start = System.nanoTime();
+        Thread.sleep(timeMs);
+        running = false;
+        writer.join();
+        for (Thread t : readers) t.join();
+        long elapsed = System.nanoTime() - start;
+
+        long observations = 0;
+        long torn = 0;
+        long finalDefault = 0;
+        for (long[] counts : perReader) {
+            observations += counts[0];
+            torn += counts[1];
+            finalDefault += counts[2];
+        }
+        return new Counts(published[0], observations, torn, finalDefault, elapsed);
+    }
+
+    private static Holder startJoinShared;
+
+    /** 对照组：每次新建线程写共享字段，join 之后读；start/join 建立 happens-before，torn 必须为 0。 */
+    private static Counts startJoin(long timeMs) throws InterruptedException {
+        long deadline = System.nanoTime() + timeMs * 1_000_000L;
+        long start = System.nanoTime();
+        long observations = 0;
+        long torn = 0;
+        int seq = 0;
+        while (System.nanoTime() < deadline) {
+            int value = ++seq;
+            startJoinShared = null;
+            Thread writer = Thread.ofPlatform().start(() -> startJoinShared = new Holder(value, value));
+            writer.join();
+            observations++;
+            if (checkHolder(startJoinShared) != OK) torn++;
+        }
+        return new Counts(seq, observations, torn, 0, System.nanoTime() - start);
+    }
+
+    /** @return 是否出现了违反保证的 torn */
+    private static boolean report(String name, String guarantee, Counts c) {
+        boolean violation = guarantee.equals("hb") && c.torn() > 0
+                || guarantee.equals("final") && c.finalDefault() > 0;
+        String verdict = violation ? "VIOLATION" : c.torn() > 0 ? "RACE OBSERVED" : "ok";
+        boolean hasFinal = name.equals("final-holder") || name.equals("plain-holder");
+        System.out.printf(Locale.ROOT, "%-16s %-9s %14.0f %16d %10d %12.2e %14s  %s%n",
+                name, guarantee, c.published() * 1e9 / c.nanos(), c.observations(), c.torn(),
+                c.observations() == 0 ? 0.0 : (double) c.torn() / c.observations(),
+                hasFinal ? String.valueOf(c.finalDefault()) : "-", verdict);
+        return violation;
+    }
+
+    private static String requireValue(String flag, String value) {
+        if (value == null || value.startsWith("--")) throw new IllegalArgumentException("Missing value for " + flag);
+        return value;
+    }
+}
@@ -1,5 +1,25 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
 import java.util.concurrent.CountDownLatch;
+import java.util.function.Supplier;
 
+/**
+ * 锁的范围：对象锁 vs 类锁（默认模式），以及锁粒度对吞吐扩展性的影响（{@code --scaling} 模式）。
+ *
+ * {@code --scaling} 让多个线程对同一个“统计表”执行相同的操作：先对 key 做一段纯计算的散列（不需要锁），
+ * 再更新该 key 所在桶的计数和字节数，同时更新全局的总字节数。对比的加锁方式：
+ * - method：整个方法 synchronized，散列计算也在锁内；
+ * - block：散列移到锁外，只锁更新（缩小锁范围）；
+ * - split：桶计数与总字节数是两组独立字段，各用一把锁（锁分离）；
+ * - striped：按 key 散列到 {@code STRIPES} 把锁之一，每个条带维护自己的桶和字节数（锁分段）；
+ * - coarsened：把一批 {@code BATCH} 次更新合并到一次加锁里（锁粗化），用更长的持锁换更少的加锁次数。
+ *
+ * 运行示例：
+ *   java SynchronizedLockScopeDemo [sleepMs]
+ *   java SynchronizedLockScopeDemo --scaling [threads,...] [opsPerThread]
+ *   java SynchronizedLockScopeDemo --scaling 1,2,4,8 2000000
+ */
 public class SynchronizedLockScopeDemo {
     private static final class Locker {
         synchronized void instanceWork(long sleepMs) {
@@ -12,6 +32,12 @@ public class SynchronizedLockScopeDemo {
     }
 
     public static void main(String[] args) throws Exception {
+        if (args.length > 0 && args[0].equals("--scaling")) {
+            int[] threadCounts = parseThreads(args.length > 1 ? args[1] : "1,2,4,8");
+            int opsPerThread = args.length > 2 ? Integer.parseInt(args[2].replace("_", "")) : 1_000_000;
+            runScaling(threadCounts, opsPerThread);
+            return;
+        }
         long sleepMs = args.length > 0 ? Long.parseLong(args[0]) : 300;
 
         testSameInstance(sleepMs);
@@ -77,6 +103,283 @@ public class SynchronizedLockScopeDemo {
         };
     }
 
+    private static final int BUCKETS = 1024;
+    private static final int STRIPES = 16;
+    private static final int BATCH = 64;
+    private static final int HASH_ROUNDS = 16;
+
+    /** 被测的统计表：record 记录一次访问；recordBatch 默认逐条调用 record。 */
+    private interface Stats {
+        void record(int key, int size);
+
+        default void recordBatch(int[] keys, int[] sizes) {
+            for (int i = 0; i < keys.length; i++) record(keys[i], sizes[i]);
+        }
+
+        long totalCount();
+
+        long totalBytes();
+    }
+
+    /** 锁外可做的纯计算，模拟解析/散列等不访问共享状态的工作。 */
+    private static int bucketOf(int key) {
+        int h = key;
+        for (int i = 0; i < HASH_ROUNDS; i++) {
+            h ^= h >>> 16;
+            h *= 0x45d9f3b;
+        }
+        return (h ^ (h >>> 16)) & (BUCKETS - 1);
+    }
+
+    private static final class MethodStats implements Stats {
+        private final long[] counts = new long[BUCKETS];
+        private final long[] bytes = new long[BUCKETS];
+        private long totalBytes;
+
+        @Override
+        public synchronized void record(int key, int size) {
+            int b = bucketOf(key);
+            counts[b]++;
+            bytes[b] += size;
+            totalBytes += size;
+        }
+
+        @Override
+        public synchronized long totalCount() {
+            long sum = 0;
+            for (long c : counts) sum += c;
+            return sum;
+        }
+
+        @Override
+        public synchronized long totalBytes() {
+            return totalBytes;
+        }
+    }
+
+    private static class BlockStats implements Stats {
+        final long[] counts = new long[BUCKETS];
+        final long[] bytes = new long[BUCKETS];
+        long totalBytes;
+
+        @Override
+        public void record(int key, int size) {
+            int b = bucketOf(key);
+            synchronized (this) {
+                counts[b]++;
+                bytes[b] += size;
+                totalBytes += size;
+            }
+        }
+
+        @Override
+        public synchronized long totalCount() {
+            long sum = 0;
+            for (long c : counts) sum += c;
+            return sum;
+        }
+
+        @Override
+        public synchronized long totalBytes() {
+            return totalBytes;
+        }
+    }
+
+    /** 与 block 相同的字段，但一批更新只加一次锁。 */
+    private static final class CoarsenedStats extends BlockStats {
+        @Override
+        public void recordBatch(int[] keys, int[] sizes) {
+            synchronized (this) {
+                for (int i = 0; i < keys.length; i++) {
+                    int b = bucketOf(keys[i]);
+                    counts[b]++;
+                    bytes[b] += sizes[i];
+                    totalBytes += sizes[i];
+                }
+            }
+        }
+    }
+
+    private static final class SplitStats implements Stats {
+        private final Object bucketLock = new Object();
+        private final Object totalLock = new Object();
+        private final long[] counts = new long[BUCKETS];
+        private final long[] bytes = new long[BUCKETS];
+        private long totalBytes;
+
+        @Override
+        public void record(int key, int size) {
+            int b = bucketOf(key);
+            synchronized (bucketLock) {
+                counts[b]++;
+                bytes[b] += size;
+            }
+            synchronized (totalLock) {
+                totalBytes += size;
+            }
+        }
+
+        @Override
+        public long totalCount() {
+            synchronized (bucketLock) {
+                long sum = 0;
+                for (long c : counts) sum += c;
+                return sum;
+            }
+        }
+
+        @Override
+        public long totalBytes() {
+            synchronized (totalLock) {
+                return totalBytes;
+            }
+        }
+    }
+
+    private static final class StripedStats implements Stats {
+        private static final class Stripe {
+            final long[] counts = new long[BUCKETS / STRIPES];
+            final long[] bytes = new long[BUCKETS / STRIPES];
+            long totalBytes;
+        }
+
+        private final Stripe[] stripes = new Stripe[STRIPES];
+
+        StripedStats() {
+            for (int i = 0; i < STRIPES; i++) stripes[i] = new Stripe();
+        }
+
+        @Override
+        public void record(int key, int size) {
+            int b = bucketOf(key);
+            // 低位选条带，高位选条带内的桶；每个 Stripe 对象本身就是锁
+            Stripe stripe = stripes[b & (STRIPES - 1)];
+            int slot = b / STRIPES;
+            synchronized (stripe) {
+                stripe.counts[slot]++;
+                stripe.bytes[slot] += size;
+                stripe.totalBytes += size;
+            }
+        }
+
+        @Override
+        public long totalCount() {
+            long sum = 0;
+            for (Stripe stripe : stripes) {
+                synchronized (stripe) {
+                    for (long c : stripe.counts) sum += c;
+                }
+            }
+            return sum;
+        }
+
+        @Override
+        public long totalBytes() {
+            long sum = 0;
+            for (Stripe stripe : stripes) {
+                synchronized (stripe) {
+                    sum += stripe.totalBytes;
+                }
+            }
+            return sum;
+        }
+    }
+
+    private record Variant(String name, Supplier<Stats> factory) {
+    }
+
+    private static void runScaling(int[] threadCounts, int opsPerThread) throws Exception {
+        List<Variant> variants = List.of(
+                new Variant("method", MethodStats::new),
+                new Variant("block", BlockStats::new),
+                new Variant("split", SplitStats::new),
+                new Variant("striped", StripedStats::new),
+                new Variant("coarsened", CoarsenedStats::new));
+        int ops = opsPerThread / BATCH * BATCH;
+        System.out.printf(Locale.ROOT, "opsPerThread=%d batch=%d buckets=%d stripes=%d hashRounds=%d cpus=%d%n",
+                ops, BATCH, BUCKETS, STRIPES, HASH_ROUNDS, Runtime.getRuntime().availableProcessors());
+
+        StringBuilder header = new StringBuilder(String.format(Locale.ROOT, "%-10s", "variant"));
+        for (int t : threadCounts) header.append(String.format(Locale.ROOT, " %16s", "t=" + t + " Mops/s(x)"));
+        System.out.println(header);
+
+        // 先整体跑一遍让 JIT 编译 bucketOf 与各 record，避免第一组结果吃亏
+        for (Variant v : variants) measure(v.factory().get(), 1, Math.min(ops, 200_000 / BATCH * BATCH));
+
+        for (Variant v : variants) {
+            StringBuilder row = new StringBuilder(String.format(Locale.ROOT, "%-10s", v.name()));
+            double base = 0;
+            for (int t : threadCounts) {
+                double opsPerSec = measure(v.factory().get(), t, ops);
+                if (base == 0) base = opsPerSec;
+                row.append(String.format(Locale.ROOT, " %9.2f(%4.2f)", opsPerSec / 1e6, opsPerSec / base));
+            }
+            System.out.println(row);
+        }
+        System.out.println("(x) = speedup vs the first thread count of the same variant; totals verified after every run");
+    }
+
+    private static double measure(Stats stats, int threads, int ops) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads);
+        List<Thread> workers = new ArrayList<>();
+        long[] expectedBytes = new long[threads];
+        for (int i = 0; i < threads; i++) {
+            int index = i;
+            Thread t = new Thread(() -> {
+                int[] keys = new int[BATCH];
+                int[] sizes = new int[BATCH];
+                int seed = 0x9E3779B9 * (index + 1);
+                long sum = 0;
+                try {
+                    start.await();
+                    for (int sent = 0; sent < ops; sent += BATCH) {
+                        for (int j = 0; j < BATCH; j++) {
+                            seed ^= seed << 13;
+                            seed ^= seed >>> 17;
+                            seed ^= seed << 5;
+                            keys[j] = seed;
+                            sizes[j] = (seed & 1023) + 1;
+                            sum += sizes[j];
+                        }
+                        stats.recordBatch(keys, sizes);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    expectedBytes[index] = sum;
+                    done.countDown();
+                }
+            }, "stats-" + i);
+            workers.add(t);
+            t.start();
+        }
+
+        long begin = System.nanoTime();
+        start.countDown();
+        done.await();
+        long elapsed = System.nanoTime() - begin;
+        for (Thread t : workers) t.join();
+
+        long bytes = 0;
+        for (long b : expectedBytes) bytes += b;
+        if (stats.totalCount() != (long) threads * ops || stats.totalBytes() != bytes) {
+            throw new IllegalStateException(stats.getClass().getSimpleName() + " lost updates: count="
+                    + stats.totalCount() + " expected=" + (long) threads * ops);
+        }
+        return (double) threads * ops * 1e9 / elapsed;
+    }
+
+    private static int[] parseThreads(String spec) {
+        String[] parts = spec.split(",");
+        int[] result = new int[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            result[i] = Integer.parseInt(parts[i].trim());
+            if (result[i] <= 0) throw new IllegalArgumentException("thread count must be > 0: " + spec);
+        }
+        return result;
+    }
+
     private static void sleep(long ms) {
         try {
             Thread.sleep(ms);
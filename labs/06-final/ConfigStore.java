@@ -0,0 +1,72 @@
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Objects;
+import java.util.function.UnaryOperator;
+
+/**
+ * 不可变快照的配置持有者：读路径无锁、无分配，重载在读路径之外构建新快照，再用一次 release 写发布。
+ *
+ * - {@link #get()}：一次 {@code getAcquire}，返回当前快照；调用方在一次请求里只读这一份快照，
+ *   多个字段之间天然一致，不会读到“一半旧、一半新”的配置；
+ * - {@link #reload(Object)} / {@link #update(UnaryOperator)}：写方之间用 synchronized 串行化（低频，不在读路径上），
+ *   新快照完全构造好后 {@code setRelease} 发布。release/acquire 配对保证读方看到引用时也看到快照构造期间的所有写；
+ *   快照本身若只有 final 字段（见 FinalConfigShareDemo.Config），即使被不安全地发布也不会读到未初始化的字段。
+ *
+ * 与 volatile 字段相比，acquire/release 少了一次 StoreLoad 屏障（x86 上 volatile 写的额外成本），
+ * 对“读远多于写、写之后不需要立刻读回”的配置场景足够。
+ */
+final class ConfigStore<T> {
+    private static final VarHandle CURRENT;
+
+    static {
+        try {
+            CURRENT = MethodHandles.lookup().findVarHandle(ConfigStore.class, "current", Object.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    @SuppressWarnings("unused") // 只通过 CURRENT 访问
+    private Object current;
+    private final Object writeLock = new Object();
+    private long reloads;
+
+    ConfigStore(T initial) {
+        CURRENT.setRelease(this, Objects.requireNonNull(initial, "initial"));
+    }
+
+    /** 热路径：无锁、无分配。 */
+    @SuppressWarnings("unchecked")
+    T get() {
+        return (T) CURRENT.getAcquire(this);
+    }
+
+    /** 用一份已经构造好的快照替换当前快照。 */
+    void reload(T next) {
+        Objects.requireNonNull(next, "next");
+        synchronized (writeLock) {
+            CURRENT.setRelease(this, next);
+            reloads++;
+        }
+    }
+
+    /**
+     * 基于当前快照派生新快照；写方串行化，不会丢失并发的更新。
+     *
+     * @return 发布的新快照
+     */
+    T update(UnaryOperator<T> change) {
+        synchronized (writeLock) {
+            T next = Objects.requireNonNull(change.apply(get()), "change returned null");
+            CURRENT.setRelease(this, next);
+            reloads++;
+            return next;
+        }
+    }
+
+    long reloads() {
+        synchronized (writeLock) {
+            return reloads;
+        }
+    }
+}
@@ -0,0 +1,136 @@
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * FinalConfigShareDemo 的“可热更新”版本：final 字段的不可变快照放进 {@link ConfigStore}，
+ * 一个重载线程不停发布新版本，多个读线程不停取快照并校验字段之间的一致性。
+ *
+ * 每个版本 v 的快照满足：size == 2 * v、enabled == (v 为偶数)、properties.get("version") == "v"。
+ * 读线程只要发现一次不满足，就说明读到了混合的配置（inconsistent，必须为 0）。
+ *
+ * 运行示例：
+ *   java FinalConfigReloadDemo
+ *   java FinalConfigReloadDemo --readers 4 --reloadMicros 50 --timeMs 2000
+ */
+public class FinalConfigReloadDemo {
+    private static final class Config {
+        final long version;
+        final String name;
+        final int size;
+        final boolean enabled;
+        final Map<String, String> properties;
+
+        Config(long version, String name, int size, boolean enabled, Map<String, String> properties) {
+            this.version = version;
+            this.name = name;
+            this.size = size;
+            this.enabled = enabled;
+            this.properties = Map.copyOf(properties);
+        }
+
+        static Config of(long version) {
+            Map<String, String> props = new HashMap<>();
+            props.put("version", Long.toString(version));
+            props.put("owner", "demo");
+            return new Config(version, "demo", (int) (2 * version), version % 2 == 0, props);
+        }
+
+        boolean consistent() {
+            return size == 2 * version && enabled == (version % 2 == 0)
+                    && properties.get("version").equals(Long.toString(version));
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        int readers = 4;
+        long reloadMicros = 100;
+        long timeMs = 1_000;
+        for (int i = 0; i < args.length; i++) {
+            String a = args[i];
+            String v = (i + 1 < args.length) ? args[i + 1] : null;
+            switch (a) {
+                case "--readers" -> {
+                    readers = Integer.parseInt(requireValue(a, v));
+                    i++;
+                }
+                case "--reloadMicros" -> {
+                    reloadMicros = Long.parseLong(requireValue(a, v));
+                    i++;
+                }
+                case "--timeMs" -> {
+                    timeMs = Long.parseLong(requireValue(a, v));
+                    i++;
+                }
+                default -> throw new IllegalArgumentException("Unknown option " + a);
+            }
+        }
+        if (readers <= 0 || reloadMicros < 0 || timeMs <= 0) {
+            throw new IllegalArgumentException("--readers/--timeMs must be > 0, --reloadMicros >= 0");
+        }
+
+        ConfigStore<Config> store = new ConfigStore<>(Config.of(1));
+        AtomicBoolean running = new AtomicBoolean(true);
+        CountDownLatch done = new CountDownLatch(readers);
+        long[] reads = new long[readers];
+        long[] inconsistent = new long[readers];
+        long[] versionChanges = new long[readers];
+
+        for (int r = 0; r < readers; r++) {
+            int id = r;
+            new Thread(() -> {
+                long lastVersion = 0;
+                while (running.get()) {
+                    // 一次请求只取一次快照，后续字段都从这份快照读
+                    Config config = store.get();
+                    // properties 的一致性检查要拼字符串，只抽样做；热路径本身只有上面一次 getAcquire
+                    boolean ok = (reads[id] & 1023) != 0
+                            ? config.size == 2 * config.version && config.enabled == (config.version % 2 == 0)
+                            : config.consistent();
+                    if (!ok) inconsistent[id]++;
+                    if (config.version != lastVersion) {
+                        versionChanges[id]++;
+                        lastVersion = config.version;
+                    }
+                    reads[id]++;
+                }
+                done.countDown();
+            }, "reader-" + r).start();
+        }
+
+        long reloadNanos = TimeUnit.MICROSECONDS.toNanos(reloadMicros);
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeMs);
+        while (System.nanoTime() < deadline) {
+            // 新快照在发布前完全构造好（含 Map.copyOf），读线程看不到构造过程
+            store.update(old -> Config.of(old.version + 1));
+            if (reloadNanos > 0) TimeUnit.NANOSECONDS.sleep(reloadNanos);
+        }
+        running.set(false);
+        done.await();
+
+        long totalReads = 0;
+        long totalInconsistent = 0;
+        long totalChanges = 0;
+        for (int r = 0; r < readers; r++) {
+            totalReads += reads[r];
+            totalInconsistent += inconsistent[r];
+            totalChanges += versionChanges[r];
+        }
+        System.out.printf(Locale.ROOT, "readers=%d timeMs=%d reloads=%d finalVersion=%d%n",
+                readers, timeMs, store.reloads(), store.get().version);
+        System.out.printf(Locale.ROOT, "reads=%d (%.1f M/s) versionChangesSeen=%d inconsistent=%d%n",
+                totalReads, totalReads / (timeMs * 1e3), totalChanges, totalInconsistent);
+        if (totalInconsistent > 0) {
+            System.out.println("读到了混合版本的配置：检查快照是否在发布后又被修改");
+            System.exit(1);
+        }
+    }
+
+    private static String requireValue(String flag, String value) {
+        if (value == null || value.startsWith("--")) throw new IllegalArgumentException("Missing value for " + flag);
+        return value;
+    }
+}
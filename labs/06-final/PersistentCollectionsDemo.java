@@ -0,0 +1,265 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * FinalReferenceMutabilityDemo 说明 final 引用不等于内容不可变；这里反过来，用“全部 final 字段 + 构造后不再修改”
+ * 做出真正不可变、且更新不必整体复制的集合：{@link PersistentVector} 与 {@link PersistentHashMap}。
+ *
+ * 默认模式依次：
+ * 1) 结构共享：修改返回新版本，旧版本保持不变；
+ * 2) 随机操作与 ArrayList/HashMap 对拍，验证正确性；
+ * 3) 数据竞争发布：写线程把新版本写进一个普通（非 volatile）字段，读线程校验不变量——
+ *    只依赖 final 字段语义，读线程可能看到旧版本，但永远不会看到构造一半的 trie。
+ *
+ * {@code --bench} 模式对比单次更新与读取的耗时：
+ * - 向量：PersistentVector.with vs CopyOnWriteArrayList.set vs “复制 ArrayList + set + unmodifiableList”；
+ * - 映射：PersistentHashMap.plus vs “复制 HashMap + put + unmodifiableMap”。
+ *
+ * 运行示例：
+ *   java PersistentCollectionsDemo
+ *   java PersistentCollectionsDemo --bench 1000,10000,100000
+ */
+public class PersistentCollectionsDemo {
+    public static void main(String[] args) throws Exception {
+        if (args.length > 0 && args[0].equals("--bench")) {
+            String spec = args.length > 1 ? args[1] : "1000,10000,100000";
+            List<Integer> sizes = new ArrayList<>();
+            for (String s : spec.split(",")) sizes.add(Integer.parseInt(s.trim().replace("_", "")));
+            runBench(sizes);
+            return;
+        }
+        showSharing();
+        fuzz(200_000, 42);
+        racyPublication(500);
+    }
+
+    private static void showSharing() {
+        PersistentVector<Integer> v1 = PersistentVector.empty();
+        for (int i = 0; i < 100; i++) v1 = v1.plus(i);
+        PersistentVector<Integer> v2 = v1.with(50, -1);
+        System.out.println("vector v1[50]=" + v1.get(50) + " v2[50]=" + v2.get(50) + " size=" + v2.size());
+
+        PersistentHashMap<String, Integer> m1 = PersistentHashMap.empty();
+        m1 = m1.plus("a", 1).plus("b", 2);
+        PersistentHashMap<String, Integer> m2 = m1.plus("a", 100).minus("b");
+        System.out.println("map    m1.a=" + m1.get("a") + " m1.b=" + m1.get("b")
+                + " | m2.a=" + m2.get("a") + " m2.b=" + m2.get("b") + " sizes=" + m1.size() + "/" + m2.size());
+    }
+
+    private static void fuzz(int ops, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        PersistentVector<Integer> vector = PersistentVector.empty();
+        List<Integer> list = new ArrayList<>();
+        PersistentHashMap<Integer, Integer> map = PersistentHashMap.empty();
+        Map<Integer, Integer> expected = new HashMap<>();
+        for (int i = 0; i < ops; i++) {
+            int r = random.nextInt(10);
+            if (r < 5 || list.isEmpty()) {
+                int v = random.nextInt();
+                vector = vector.plus(v);
+                list.add(v);
+            } else {
+                int idx = random.nextInt(list.size());
+                int v = random.nextInt();
+                vector = vector.with(idx, v);
+                list.set(idx, v);
+            }
+            // 键空间较小，既有替换也有删除；哈希冲突靠 Integer 的全值域自然出现得很少，另有专门的冲突键检查
+            int key = random.nextInt(50_000);
+            if (random.nextInt(4) == 0) {
+                map = map.minus(key);
+                expected.remove(key);
+            } else {
+                int v = random.nextInt();
+                map = map.plus(key, v);
+                expected.put(key, v);
+            }
+        }
+        if (vector.size() != list.size()) throw new IllegalStateException("vector size mismatch");
+        for (int i = 0; i < list.size(); i++) {
+            if (!vector.get(i).equals(list.get(i))) throw new IllegalStateException("vector mismatch at " + i);
+        }
+        if (map.size() != expected.size()) throw new IllegalStateException("map size mismatch");
+        for (Map.Entry<Integer, Integer> e : expected.entrySet()) {
+            if (!e.getValue().equals(map.get(e.getKey()))) throw new IllegalStateException("map mismatch at " + e.getKey());
+        }
+
+        // "Aa" 与 "BB" 的 hashCode 相同，拼接后得到大量完全冲突的键
+        PersistentHashMap<String, Integer> collisions = PersistentHashMap.empty();
+        List<String> keys = new ArrayList<>();
+        for (int i = 0; i < 64; i++) {
+            StringBuilder sb = new StringBuilder();
+            for (int bit = 0; bit < 6; bit++) sb.append((i >>> bit & 1) == 0 ? "Aa" : "BB");
+            keys.add(sb.toString());
+            collisions = collisions.plus(sb.toString(), i);
+        }
+        for (int i = 0; i < keys.size(); i++) {
+            if (collisions.get(keys.get(i)) != i) throw new IllegalStateException("collision mismatch");
+            if (i % 2 == 0) collisions = collisions.minus(keys.get(i));
+        }
+        if (collisions.size() != 32) throw new IllegalStateException("collision size " + collisions.size());
+
+        System.out.println("fuzz ok: ops=" + ops + " vectorSize=" + vector.size() + " mapSize=" + map.size()
+                + " collisionKeys=" + keys.size());
+    }
+
+    /** 故意不加 volatile：读线程能看到的只有 final 字段语义的保证。 */
+    private static PersistentVector<Integer> racyVector = PersistentVector.empty();
+    /** 停止标志是 volatile，但写线程在循环里从不写它，不会给 racyVector 的读写带来 happens-before。 */
+    private static volatile boolean racyStop;
+    /** 基准结果的去处，防止读取循环被当作死代码消除。 */
+    private static volatile long sink;
+
+    private static void racyPublication(long timeMs) throws InterruptedException {
+        int readers = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+        long[] reads = new long[readers];
+        long[] broken = new long[readers];
+        Thread[] threads = new Thread[readers];
+        for (int r = 0; r < readers; r++) {
+            int id = r;
+            threads[r] = new Thread(() -> {
+                while (!racyStop) {
+                    PersistentVector<Integer> v = racyVector;
+                    int size = v.size();
+                    // 不变量：第 i 个元素就是 i
+                    try {
+                        if (size > 0 && (v.get(size - 1) != size - 1 || v.get(size / 2) != size / 2)) broken[id]++;
+                    } catch (RuntimeException e) {
+                        broken[id]++;
+                    }
+                    reads[id]++;
+                }
+            }, "racy-reader-" + r);
+            threads[r].start();
+        }
+
+        long deadline = System.nanoTime() + timeMs * 1_000_000L;
+        PersistentVector<Integer> v = PersistentVector.empty();
+        while (System.nanoTime() < deadline) {
+            v = v.plus(v.size());
+            racyVector = v;
+            if (v.size() == 1 << 20) v = PersistentVector.empty();
+        }
+        racyStop = true;
+        for (Thread t : threads) t.join();
+
+        long totalReads = 0;
+        long totalBroken = 0;
+        for (int r = 0; r < readers; r++) {
+            totalReads += reads[r];
+            totalBroken += broken[r];
+        }
+        System.out.println("racy publication: readers=" + readers + " reads=" + totalReads + " broken=" + totalBroken);
+        if (totalBroken > 0) {
+            System.out.println("读到了构造不完整的版本：检查是否有节点在构造器返回后被修改");
+            System.exit(1);
+        }
+    }
+
+    private static void runBench(List<Integer> sizes) {
+        System.out.printf(Locale.ROOT, "%-26s %10s %14s %14s%n", "collection", "size", "update(ns)", "read(ns)");
+        for (int size : sizes) {
+            if (size <= 0) throw new IllegalArgumentException("size must be > 0");
+            // 复制类实现每次更新 O(n)，按规模缩小次数，让每组耗时相近
+            int updates = (int) Math.max(200, Math.min(200_000, 50_000_000L / size));
+            int reads = 2_000_000;
+
+            PersistentVector<Integer> pv = PersistentVector.empty();
+            List<Integer> base = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                pv = pv.plus(i);
+                base.add(i);
+            }
+            CopyOnWriteArrayList<Integer> cow = new CopyOnWriteArrayList<>(base);
+            List<Integer> unmodifiable = Collections.unmodifiableList(new ArrayList<>(base));
+
+            PersistentHashMap<Integer, Integer> pm = PersistentHashMap.empty();
+            Map<Integer, Integer> baseMap = new HashMap<>();
+            for (int i = 0; i < size; i++) {
+                pm = pm.plus(i, i);
+                baseMap.put(i, i);
+            }
+            Map<Integer, Integer> unmodifiableMap = Collections.unmodifiableMap(new HashMap<>(baseMap));
+
+            // 每组先跑一遍预热，再计时
+            for (int round = 0; round < 2; round++) {
+                boolean print = round == 1;
+                PersistentVector<Integer> pvResult = pv;
+                long t0 = System.nanoTime();
+                for (int i = 0; i < updates; i++) pvResult = pvResult.with(index(i, size), i);
+                long pvUpdate = System.nanoTime() - t0;
+                t0 = System.nanoTime();
+                long sum = 0;
+                for (int i = 0; i < reads; i++) sum += pvResult.get(index(i, size));
+                long pvRead = System.nanoTime() - t0;
+                report(print, "PersistentVector", size, pvUpdate, updates, pvRead, reads, sum);
+
+                t0 = System.nanoTime();
+                for (int i = 0; i < updates; i++) cow.set(index(i, size), i);
+                long cowUpdate = System.nanoTime() - t0;
+                t0 = System.nanoTime();
+                sum = 0;
+                for (int i = 0; i < reads; i++) sum += cow.get(index(i, size));
+                long cowRead = System.nanoTime() - t0;
+                report(print, "CopyOnWriteArrayList", size, cowUpdate, updates, cowRead, reads, sum);
+
+                List<Integer> ul = unmodifiable;
+                t0 = System.nanoTime();
+                for (int i = 0; i < updates; i++) {
+                    List<Integer> copy = new ArrayList<>(ul);
+                    copy.set(index(i, size), i);
+                    ul = Collections.unmodifiableList(copy);
+                }
+                long ulUpdate = System.nanoTime() - t0;
+                t0 = System.nanoTime();
+                sum = 0;
+                for (int i = 0; i < reads; i++) sum += ul.get(index(i, size));
+                long ulRead = System.nanoTime() - t0;
+                report(print, "unmodifiableList(copy)", size, ulUpdate, updates, ulRead, reads, sum);
+
+                PersistentHashMap<Integer, Integer> pmResult = pm;
+                t0 = System.nanoTime();
+                for (int i = 0; i < updates; i++) pmResult = pmResult.plus(index(i, size), i);
+                long pmUpdate = System.nanoTime() - t0;
+                t0 = System.nanoTime();
+                sum = 0;
+                for (int i = 0; i < reads; i++) sum += pmResult.get(index(i, size));
+                long pmRead = System.nanoTime() - t0;
+                report(print, "PersistentHashMap", size, pmUpdate, updates, pmRead, reads, sum);
+
+                Map<Integer, Integer> um = unmodifiableMap;
+                t0 = System.nanoTime();
+                for (int i = 0; i < updates; i++) {
+                    Map<Integer, Integer> copy = new HashMap<>(um);
+                    copy.put(index(i, size), i);
+                    um = Collections.unmodifiableMap(copy);
+                }
+                long umUpdate = System.nanoTime() - t0;
+                t0 = System.nanoTime();
+                sum = 0;
+                for (int i = 0; i < reads; i++) sum += um.get(index(i, size));
+                long umRead = System.nanoTime() - t0;
+                report(print, "unmodifiableMap(copy)", size, umUpdate, updates, umRead, reads, sum);
+            }
+        }
+    }
+
+    /** 乘法散列打散访问顺序，避免顺序访问让 trie 与数组都只命中同一段缓存。 */
+    private static int index(int i, int size) {
+        return (int) (((i * 0x9E3779B9L) & 0xFFFFFFFFL) % size);
+    }
+
+    private static void report(boolean print, String name, int size, long updateNanos, int updates,
+                               long readNanos, int reads, long checksum) {
+        sink += checksum;
+        if (!print) return;
+        System.out.printf(Locale.ROOT, "%-26s %10d %14.1f %14.1f%n", name, size,
+                (double) updateNanos / updates, (double) readNanos / reads);
+    }
+}
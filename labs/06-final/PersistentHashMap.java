@@ -0,0 +1,229 @@
+import java.util.Objects;
+
+/**
+ * 持久化（结构共享）哈希映射：HAMT（Hash Array Mapped Trie），思路同 Clojure 的 PersistentHashMap。
+ *
+ * - 每层取哈希的 5 位，节点用 32 位 bitmap 记录哪些槽位有值，数组只存在的槽位（紧凑，无空位）；
+ * - 槽位里要么是键值对，要么是下一层子节点；32 位哈希完全相同的键放进冲突节点线性查找；
+ * - {@link #plus}/{@link #minus} 只复制根到目标槽位的路径，O(log32 n)，其余节点与旧版本共享。
+ *
+ * 安全发布同 {@link PersistentVector}：字段全是 final，数组在构造器返回前填好、之后不再修改。
+ * 不支持 null 键和 null 值。
+ */
+final class PersistentHashMap<K, V> {
+    private static final int BITS = 5;
+    private static final int MASK = (1 << BITS) - 1;
+
+    private abstract static class Node {
+        abstract Object find(int shift, int hash, Object key);
+
+        /** added[0] 在新增键（而不是替换值）时置为 true。 */
+        abstract Node put(int shift, int hash, Object key, Object value, boolean[] added);
+
+        /** @return 删除后的节点；节点变空时返回 null */
+        abstract Node remove(int shift, int hash, Object key);
+    }
+
+    /** array[2i] 为键（null 表示该槽是子节点），array[2i+1] 为值或子节点。 */
+    private static final class BitmapNode extends Node {
+        static final BitmapNode EMPTY = new BitmapNode(0, new Object[0]);
+
+        final int bitmap;
+        final Object[] array;
+
+        BitmapNode(int bitmap, Object[] array) {
+            this.bitmap = bitmap;
+            this.array = array;
+        }
+
+        private int index(int bit) {
+            return Integer.bitCount(bitmap & (bit - 1));
+        }
+
+        @Override
+        Object find(int shift, int hash, Object key) {
+            int bit = bitFor(hash, shift);
+            if ((bitmap & bit) == 0) return null;
+            int idx = index(bit);
+            Object k = array[2 * idx];
+            Object v = array[2 * idx + 1];
+            if (k == null) return ((Node) v).find(shift + BITS, hash, key);
+            return key.equals(k) ? v : null;
+        }
+
+        @Override
+        Node put(int shift, int hash, Object key, Object value, boolean[] added) {
+            int bit = bitFor(hash, shift);
+            int idx = index(bit);
+            if ((bitmap & bit) != 0) {
+                Object k = array[2 * idx];
+                Object v = array[2 * idx + 1];
+                if (k == null) {
+                    Node child = ((Node) v).put(shift + BITS, hash, key, value, added);
+                    return child == v ? this : new BitmapNode(bitmap, cloneAndSet(array, 2 * idx + 1, child));
+                }
+                if (key.equals(k)) {
+                    return v == value ? this : new BitmapNode(bitmap, cloneAndSet(array, 2 * idx + 1, value));
+                }
+                // 同一槽位的两个不同键：下沉为子节点
+                added[0] = true;
+                Object[] next = cloneAndSet(array, 2 * idx, null);
+                next[2 * idx + 1] = createNode(shift + BITS, k, v, hash, key, value);
+                return new BitmapNode(bitmap, next);
+            }
+            int n = Integer.bitCount(bitmap);
+            Object[] next = new Object[2 * (n + 1)];
+            System.arraycopy(array, 0, next, 0, 2 * idx);
+            next[2 * idx] = key;
+            next[2 * idx + 1] = value;
+            System.arraycopy(array, 2 * idx, next, 2 * (idx + 1), 2 * (n - idx));
+            added[0] = true;
+            return new BitmapNode(bitmap | bit, next);
+        }
+
+        @Override
+        Node remove(int shift, int hash, Object key) {
+            int bit = bitFor(hash, shift);
+            if ((bitmap & bit) == 0) return this;
+            int idx = index(bit);
+            Object k = array[2 * idx];
+            Object v = array[2 * idx + 1];
+            if (k == null) {
+                Node child = ((Node) v).remove(shift + BITS, hash, key);
+                if (child == v) return this;
+                if (child != null) return new BitmapNode(bitmap, cloneAndSet(array, 2 * idx + 1, child));
+            } else if (!key.equals(k)) {
+                return this;
+            }
+            if (bitmap == bit) return null;
+            return new BitmapNode(bitmap ^ bit, removePair(array, idx));
+        }
+    }
+
+    /** 32 位哈希完全相同的键值对，线性查找。 */
+    private static final class CollisionNode extends Node {
+        final int hash;
+        final Object[] array;
+
+        CollisionNode(int hash, Object[] array) {
+            this.hash = hash;
+            this.array = array;
+        }
+
+        private int indexOf(Object key) {
+            for (int i = 0; i < array.length; i += 2) {
+                if (key.equals(array[i])) return i / 2;
+            }
+            return -1;
+        }
+
+        @Override
+        Object find(int shift, int hash, Object key) {
+            int idx = indexOf(key);
+            return idx < 0 ? null : array[2 * idx + 1];
+        }
+
+        @Override
+        Node put(int shift, int hash, Object key, Object value, boolean[] added) {
+            if (hash != this.hash) {
+                // 哈希不同：把自己包进一个位图节点，再在该层插入新键
+                BitmapNode wrapper = new BitmapNode(bitFor(this.hash, shift), new Object[]{null, this});
+                return wrapper.put(shift, hash, key, value, added);
+            }
+            int idx = indexOf(key);
+            if (idx >= 0) {
+                return array[2 * idx + 1] == value ? this : new CollisionNode(hash, cloneAndSet(array, 2 * idx + 1, value));
+            }
+            Object[] next = new Object[array.length + 2];
+            System.arraycopy(array, 0, next, 0, array.length);
+            next[array.length] = key;
+            next[array.length + 1] = value;
+            added[0] = true;
+            return new CollisionNode(hash, next);
+        }
+
+        @Override
+        Node remove(int shift, int hash, Object key) {
+            int idx = indexOf(key);
+            if (idx < 0) return this;
+            if (array.length == 2) return null;
+            return new CollisionNode(hash, removePair(array, idx));
+        }
+    }
+
+    private static final PersistentHashMap<?, ?> EMPTY = new PersistentHashMap<>(0, null);
+
+    private final int size;
+    private final Node root;
+
+    private PersistentHashMap(int size, Node root) {
+        this.size = size;
+        this.root = root;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <K, V> PersistentHashMap<K, V> empty() {
+        return (PersistentHashMap<K, V>) EMPTY;
+    }
+
+    int size() {
+        return size;
+    }
+
+    @SuppressWarnings("unchecked")
+    V get(Object key) {
+        Objects.requireNonNull(key, "key");
+        return root == null ? null : (V) root.find(0, hash(key), key);
+    }
+
+    boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    /** 返回加入（或替换）key → value 的新版本；当前版本不变。 */
+    PersistentHashMap<K, V> plus(K key, V value) {
+        Objects.requireNonNull(key, "key");
+        Objects.requireNonNull(value, "value");
+        boolean[] added = new boolean[1];
+        Node base = root == null ? BitmapNode.EMPTY : root;
+        Node next = base.put(0, hash(key), key, value, added);
+        return next == root ? this : new PersistentHashMap<>(added[0] ? size + 1 : size, next);
+    }
+
+    /** 返回删除 key 的新版本；key 不存在时返回当前版本。 */
+    PersistentHashMap<K, V> minus(Object key) {
+        Objects.requireNonNull(key, "key");
+        if (root == null) return this;
+        Node next = root.remove(0, hash(key), key);
+        return next == root ? this : new PersistentHashMap<>(size - 1, next);
+    }
+
+    private static int hash(Object key) {
+        int h = key.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    private static int bitFor(int hash, int shift) {
+        return 1 << ((hash >>> shift) & MASK);
+    }
+
+    private static Node createNode(int shift, Object k1, Object v1, int h2, Object k2, Object v2) {
+        int h1 = hash(k1);
+        if (h1 == h2) return new CollisionNode(h1, new Object[]{k1, v1, k2, v2});
+        boolean[] added = new boolean[1];
+        return BitmapNode.EMPTY.put(shift, h1, k1, v1, added).put(shift, h2, k2, v2, added);
+    }
+
+    private static Object[] cloneAndSet(Object[] array, int i, Object value) {
+        Object[] next = array.clone();
+        next[i] = value;
+        return next;
+    }
+
+    private static Object[] removePair(Object[] array, int idx) {
+        Object[] next = new Object[array.length - 2];
+        System.arraycopy(array, 0, next, 0, 2 * idx);
+        System.arraycopy(array, 2 * (idx + 1), next, 2 * idx, next.length - 2 * idx);
+        return next;
+    }
+}
@@ -0,0 +1,164 @@
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * 持久化（结构共享）向量：32 路位分区 trie + 尾部缓冲，思路同 Clojure 的 PersistentVector。
+ *
+ * - {@link #get(int)}：从根按每层 5 位下标走到叶子，O(log32 n)，百万元素也只有 4 层；
+ * - {@link #with(int, Object)}：只复制根到叶子这一条路径（每层一个 32 元素数组），其余节点与旧版本共享；
+ * - {@link #plus(Object)}：追加先写进尾部数组，满 32 个才整体挂进 trie，摊还 O(1)。
+ *
+ * 安全发布：所有字段都是 final，节点数组在构造器返回前就已填好，之后再也不写
+ * （注意是先在局部数组上改完，再 new Node；不能 new 了再改）。按 JLS 17.5，任何线程只要拿到向量引用，
+ * 哪怕是经数据竞争拿到的，也能看到完整的 trie，不需要 volatile 或锁。
+ */
+final class PersistentVector<E> implements Iterable<E> {
+    private static final int BITS = 5;
+    private static final int WIDTH = 1 << BITS;
+    private static final int MASK = WIDTH - 1;
+
+    private static final class Node {
+        final Object[] array;
+
+        Node(Object[] array) {
+            this.array = array;
+        }
+    }
+
+    private static final Node EMPTY_NODE = new Node(new Object[WIDTH]);
+    private static final PersistentVector<?> EMPTY = new PersistentVector<>(0, BITS, EMPTY_NODE, new Object[0]);
+
+    private final int size;
+    private final int shift;
+    private final Node root;
+    private final Object[] tail;
+
+    private PersistentVector(int size, int shift, Node root, Object[] tail) {
+        this.size = size;
+        this.shift = shift;
+        this.root = root;
+        this.tail = tail;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <E> PersistentVector<E> empty() {
+        return (PersistentVector<E>) EMPTY;
+    }
+
+    int size() {
+        return size;
+    }
+
+    @SuppressWarnings("unchecked")
+    E get(int index) {
+        return (E) arrayFor(index)[index & MASK];
+    }
+
+    /** 返回把 index 处替换为 value 的新版本；当前版本不变。 */
+    PersistentVector<E> with(int index, E value) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException(index);
+        if (index >= tailOffset()) {
+            Object[] newTail = tail.clone();
+            newTail[index & MASK] = value;
+            return new PersistentVector<>(size, shift, root, newTail);
+        }
+        return new PersistentVector<>(size, shift, assoc(shift, root, index, value), tail);
+    }
+
+    /** 返回在末尾追加 value 的新版本；当前版本不变。 */
+    PersistentVector<E> plus(E value) {
+        if (size - tailOffset() < WIDTH) {
+            Object[] newTail = Arrays.copyOf(tail, tail.length + 1);
+            newTail[tail.length] = value;
+            return new PersistentVector<>(size + 1, shift, root, newTail);
+        }
+        // 尾部已满：整体挂进 trie，新尾部只含 value
+        Node tailNode = new Node(tail);
+        Node newRoot;
+        int newShift = shift;
+        if ((size >>> BITS) > (1 << shift)) {
+            // 根也满了：树长高一层
+            Object[] array = new Object[WIDTH];
+            array[0] = root;
+            array[1] = newPath(shift, tailNode);
+            newRoot = new Node(array);
+            newShift += BITS;
+        } else {
+            newRoot = pushTail(shift, root, tailNode);
+        }
+        return new PersistentVector<>(size + 1, newShift, newRoot, new Object[]{value});
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return new Iterator<>() {
+            private int next;
+
+            @Override
+            public boolean hasNext() {
+                return next < size;
+            }
+
+            @Override
+            public E next() {
+                if (next >= size) throw new NoSuchElementException();
+                return get(next++);
+            }
+        };
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < size; i++) {
+            if (i > 0) sb.append(", ");
+            sb.append(get(i));
+        }
+        return sb.append(']').toString();
+    }
+
+    private int tailOffset() {
+        return size < WIDTH ? 0 : ((size - 1) >>> BITS) << BITS;
+    }
+
+    private Object[] arrayFor(int index) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException(index);
+        if (index >= tailOffset()) return tail;
+        Node node = root;
+        for (int level = shift; level > 0; level -= BITS) {
+            node = (Node) node.array[(index >>> level) & MASK];
+        }
+        return node.array;
+    }
+
+    private static Node assoc(int level, Node node, int index, Object value) {
+        Object[] array = node.array.clone();
+        if (level == 0) {
+            array[index & MASK] = value;
+        } else {
+            int sub = (index >>> level) & MASK;
+            array[sub] = assoc(level - BITS, (Node) node.array[sub], index, value);
+        }
+        return new Node(array);
+    }
+
+    private Node pushTail(int level, Node parent, Node tailNode) {
+        int sub = ((size - 1) >>> level) & MASK;
+        Object[] array = parent.array.clone();
+        if (level == BITS) {
+            array[sub] = tailNode;
+        } else {
+            Node child = (Node) parent.array[sub];
+            array[sub] = child != null ? pushTail(level - BITS, child, tailNode) : newPath(level - BITS, tailNode);
+        }
+        return new Node(array);
+    }
+
+    private static Node newPath(int level, Node node) {
+        if (level == 0) return node;
+        Object[] array = new Object[WIDTH];
+        array[0] = newPath(level - BITS, node);
+        return new Node(array);
+    }
+}
@@ -0,0 +1,268 @@
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * FinalThisEscapeDemo 的工程化版本：监听器在构造期间把 this 注册出去（naive），
+ * 对比“先构造完、再注册”的工厂/构建器（safe）。
+ *
+ * - naive：{@link NaiveBase} 的构造器里 {@code registry.register(this)}，子类的 final 字段在 super() 返回后才赋值。
+ *   事件线程一旦在这个窗口里回调，就会看到 id=0、name=null——这不是重排序，而是对象确实还没构造完，
+ *   final 字段的语义也救不了（JLS 17.5 只保证“构造结束后才发布”的对象）；
+ * - safe：构造器私有，只能通过 {@link SafeListener#create} 或 {@link SafeListener.Builder#registerWith}
+ *   拿到对象；它们在构造器返回之后才注册，注册本身是对不可变数组的 CAS（无锁），
+ *   CAS 的 volatile 语义让事件线程看到引用时也看到全部字段。
+ *
+ * 压力测试：注册线程持续创建监听器（注册表只保留最近 window 个），事件线程持续遍历注册表回调，
+ * 监听器在回调里自检字段，统计“部分初始化”观察次数。safe 必须为 0。
+ *
+ * 运行示例：
+ *   java SafeListenerPublishDemo
+ *   java SafeListenerPublishDemo --timeMs 3000 --firers 2 --registrars 2 --window 32
+ */
+public class SafeListenerPublishDemo {
+    interface Listener {
+        void onEvent(long event);
+    }
+
+    /** 无锁注册表：不可变数组 + CAS，注册与遍历都不加锁；只保留最近 window 个监听器。 */
+    static final class ListenerRegistry {
+        private static final Listener[] EMPTY = new Listener[0];
+
+        private final AtomicReference<Listener[]> listeners = new AtomicReference<>(EMPTY);
+        private final int window;
+
+        ListenerRegistry(int window) {
+            if (window <= 0) throw new IllegalArgumentException("window must be > 0");
+            this.window = window;
+        }
+
+        void register(Listener listener) {
+            while (true) {
+                Listener[] current = listeners.get();
+                int keep = Math.min(current.length, window - 1);
+                Listener[] next = Arrays.copyOfRange(current, current.length - keep, current.length + 1);
+                next[keep] = listener;
+                if (listeners.compareAndSet(current, next)) return;
+            }
+        }
+
+        /** @return 本轮回调的监听器数量 */
+        int fire(long event) {
+            Listener[] snapshot = listeners.get();
+            for (Listener l : snapshot) l.onEvent(event);
+            return snapshot.length;
+        }
+    }
+
+    /** 两种实现共用的自检：字段之间的关系在构造完成后总成立。 */
+    static final AtomicLong partialObservations = new AtomicLong();
+
+    static void check(int id, String name, int threshold) {
+        if (id == 0 || name == null || threshold != id * 2) partialObservations.incrementAndGet();
+    }
+
+    /** naive：父类构造器注册 this，子类字段此时还是默认值。 */
+    abstract static class NaiveBase implements Listener {
+        NaiveBase(ListenerRegistry registry) {
+            registry.register(this);
+        }
+    }
+
+    static final class NaiveListener extends NaiveBase {
+        private final int id;
+        private final String name;
+        private final int threshold;
+
+        NaiveListener(ListenerRegistry registry, int id) {
+            super(registry);
+            this.id = id;
+            this.name = "listener-" + id;
+            this.threshold = id * 2;
+        }
+
+        @Override
+        public void onEvent(long event) {
+            check(id, name, threshold);
+        }
+    }
+
+    /** safe：构造器不泄露 this，注册由工厂/构建器在构造完成后进行。 */
+    static final class SafeListener implements Listener {
+        private final int id;
+        private final String name;
+        private final int threshold;
+
+        private SafeListener(int id, String name, int threshold) {
+            this.id = id;
+            this.name = name;
+            this.threshold = threshold;
+        }
+
+        static SafeListener create(ListenerRegistry registry, int id) {
+            return builder().id(id).registerWith(registry);
+        }
+
+        static Builder builder() {
+            return new Builder();
+        }
+
+        @Override
+        public void onEvent(long event) {
+            check(id, name, threshold);
+        }
+
+        static final class Builder {
+            private int id;
+            private String name;
+
+            private Builder() {
+            }
+
+            Builder id(int id) {
+                this.id = id;
+                return this;
+            }
+
+            Builder name(String name) {
+                this.name = name;
+                return this;
+            }
+
+            /** 构造完成后才注册：注册表里永远只有完整的对象。 */
+            SafeListener registerWith(ListenerRegistry registry) {
+                if (id <= 0) throw new IllegalStateException("id must be > 0");
+                SafeListener listener = new SafeListener(id, name != null ? name : "listener-" + id, id * 2);
+                registry.register(listener);
+                return listener;
+            }
+        }
+    }
+
+    private static volatile boolean running;
+
+    public static void main(String[] args) throws Exception {
+        long timeMs = 1_000;
+        int firers = 1;
+        int registrars = 1;
+        int window = 64;
+        for (int i = 0; i < args.length; i++) {
+            String a = args[i];
+            String v = (i + 1 < args.length) ? args[i + 1] : null;
+            switch (a) {
+                case "--timeMs" -> {
+                    timeMs = Long.parseLong(requireValue(a, v));
+                    i++;
+                }
+                case "--firers" -> {
+                    firers = Integer.parseInt(requireValue(a, v));
+                    i++;
+                }
+                case "--registrars" -> {
+                    registrars = Integer.parseInt(requireValue(a, v));
+                    i++;
+                }
+                case "--window" -> {
+                    window = Integer.parseInt(requireValue(a, v));
+                    i++;
+                }
+                default -> throw new IllegalArgumentException("Unknown option " + a);
+            }
+        }
+        if (timeMs <= 0 || firers <= 0 || registrars <= 0 || window <= 0) {
+            throw new IllegalArgumentException("--timeMs, --firers, --registrars and --window must be > 0");
+        }
+
+        System.out.printf(Locale.ROOT, "timeMs=%d firers=%d registrars=%d window=%d%n", timeMs, firers, registrars, window);
+        System.out.printf(Locale.ROOT, "%-6s %14s %16s %10s %12s%n",
+                "mode", "registers/s", "callbacks", "partial", "partial-rate");
+        long naivePartial = run("naive", true, timeMs, firers, registrars, window);
+        long safePartial = run("safe", false, timeMs, firers, registrars, window);
+        if (naivePartial == 0) {
+            System.out.println("naive 本次没有观察到部分初始化：加大 --timeMs 或 --firers 再试（概率性）");
+        }
+        if (safePartial > 0) {
+            System.out.println("safe 观察到部分初始化：检查是否有构造器泄露了 this");
+            System.exit(1);
+        }
+    }
+
+    private static long run(String mode, boolean naive, long timeMs, int firers, int registrars, int window)
+            throws InterruptedException {
+        ListenerRegistry registry = new ListenerRegistry(window);
+        partialObservations.set(0);
+        running = true;
+        long[] callbacks = new long[firers];
+        long[] registered = new long[registrars];
+        Thread[] threads = new Thread[firers + registrars];
+        // 工作线程抛出的第一个异常；出错时提前结束本轮，并在 join 之后重新抛出，而不是打印一张缺了计数的表
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        for (int f = 0; f < firers; f++) {
+            int index = f;
+            threads[f] = new Thread(guarded(failure, () -> {
+                long event = 0;
+                long count = 0;
+                while (running) count += registry.fire(++event);
+                callbacks[index] = count;
+            }), mode + "-firer-" + f);
+        }
+        for (int r = 0; r < registrars; r++) {
+            int index = r;
+            threads[firers + r] = new Thread(guarded(failure, () -> {
+                // 每个注册线程用不相交的 id 段 [first, first + span)，用完回绕；id 始终为正，0 保留给“未初始化”
+                int span = Integer.MAX_VALUE / registrars;
+                int first = index * span + 1;
+                int offset = 0;
+                long count = 0;
+                while (running) {
+                    int id = first + offset;
+                    offset = offset + 1 == span ? 0 : offset + 1;
+                    if (naive) {
+                        new NaiveListener(registry, id);
+                    } else {
+                        SafeListener.create(registry, id);
+                    }
+                    count++;
+                }
+                registered[index] = count;
+            }), mode + "-registrar-" + r);
+        }
+
+        long start = System.nanoTime();
+        for (Thread t : threads) t.start();
+        Thread.sleep(timeMs);
+        running = false;
+        for (Thread t : threads) t.join();
+        long elapsed = System.nanoTime() - start;
+        Throwable error = failure.get();
+        if (error != null) throw new IllegalStateException(mode + " worker failed", error);
+
+        long totalCallbacks = 0;
+        long totalRegistered = 0;
+        for (long c : callbacks) totalCallbacks += c;
+        for (long r : registered) totalRegistered += r;
+        long partial = partialObservations.get();
+        System.out.printf(Locale.ROOT, "%-6s %14.0f %16d %10d %12.2e%n", mode, totalRegistered * 1e9 / elapsed,
+                totalCallbacks, partial, totalCallbacks == 0 ? 0.0 : (double) partial / totalCallbacks);
+        return partial;
+    }
+
+    /** 记录第一个异常并让其余线程停下，避免某个线程悄悄死掉而整轮照常结束。 */
+    private static Runnable guarded(AtomicReference<Throwable> failure, Runnable body) {
+        return () -> {
+            try {
+                body.run();
+            } catch (Throwable t) {
+                failure.compareAndSet(null, t);
+                running = false;
+            }
+        };
+    }
+
+    private static String requireValue(String flag, String value) {
+        if (value == null || value.startsWith("--")) throw new IllegalArgumentException("Missing value for " + flag);
+        return value;
+    }
+}
@@ -0,0 +1,269 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+/**
+ * jcstress 风格的 litmus 测试运行器：把 OrderingSummaryDemo / VolatileReorderingDemo 里“每次 new 两个线程跑一次”的写法，
+ * 换成常驻的 actor 线程 + 状态数组批量执行，每秒可跑数百万次，罕见的重排序几秒内就能复现。
+ *
+ * 做法：
+ * - 每个 actor 一个常驻线程；控制线程准备一批 {@code batch} 个全新的状态对象，翻转 epoch 放行；
+ * - 各 actor 自旋等到放行后，按顺序对整批状态执行自己的那段代码（数组批量化增加交错的机会）；
+ * - 全部 actor 完成后，控制线程逐个读取结果 r1..rN，计入结果直方图，再重置状态进入下一批。
+ *
+ * 每个结果按 {@link Expect} 分类：ACCEPTABLE（顺序一致下可出现）、INTERESTING（JMM 允许但非顺序一致，说明发生了重排序）、
+ * FORBIDDEN（JMM 不允许，出现即说明代码或 JVM 有问题）。出现 FORBIDDEN 时退出码为 1。
+ *
+ * 运行示例：
+ *   javac LitmusRunner.java
+ *   java LitmusRunner
+ *   java LitmusRunner --time 5000 sb
+ *   java LitmusRunner --batch 4096 "mp|iriw"
+ */
+public class LitmusRunner {
+    enum Expect { ACCEPTABLE, INTERESTING, FORBIDDEN }
+
+    /** 所有测试共用的状态：一组普通字段、一组 volatile 字段和最多 4 个结果槽。 */
+    static final class State {
+        int x;
+        int y;
+        volatile int vx;
+        volatile int vy;
+        int r1;
+        int r2;
+        int r3;
+        int r4;
+
+        void reset() {
+            x = 0;
+            y = 0;
+            vx = 0;
+            vy = 0;
+            r1 = 0;
+            r2 = 0;
+            r3 = 0;
+            r4 = 0;
+        }
+    }
+
+    @FunctionalInterface
+    interface Actor {
+        void run(State s);
+    }
+
+    /**
+     * 一个 litmus 测试：若干 actor、结果槽个数，以及对每种结果的分类。
+     * 结果槽取值都是 0/1，按 r1 为最低位编码成下标。
+     */
+    record Litmus(String name, String description, int results, List<Actor> actors,
+                  Function<int[], Expect> classify) {
+    }
+
+    static List<Litmus> tests() {
+        List<Litmus> tests = new ArrayList<>();
+
+        // Store Buffering：x=1; r1=y || y=1; r2=x。(0,0) 意味着两边的读都越过了自己的写
+        tests.add(new Litmus("sb-plain", "x=1; r1=y | y=1; r2=x", 2, List.of(
+                s -> { s.x = 1; s.r1 = s.y; },
+                s -> { s.y = 1; s.r2 = s.x; }),
+                r -> r[0] == 0 && r[1] == 0 ? Expect.INTERESTING : Expect.ACCEPTABLE));
+        tests.add(new Litmus("sb-volatile", "vx=1; r1=vy | vy=1; r2=vx", 2, List.of(
+                s -> { s.vx = 1; s.r1 = s.vy; },
+                s -> { s.vy = 1; s.r2 = s.vx; }),
+                r -> r[0] == 0 && r[1] == 0 ? Expect.FORBIDDEN : Expect.ACCEPTABLE));
+
+        // Message Passing：x=1; flag=1 || r1=flag; r2=x。(1,0) 表示看到了标志却没看到数据
+        tests.add(new Litmus("mp-plain", "x=1; y=1 | r1=y; r2=x", 2, List.of(
+                s -> { s.x = 1; s.y = 1; },
+                s -> { s.r1 = s.y; s.r2 = s.x; }),
+                r -> r[0] == 1 && r[1] == 0 ? Expect.INTERESTING : Expect.ACCEPTABLE));
+        tests.add(new Litmus("mp-volatile-flag", "x=1; vy=1 | r1=vy; r2=x", 2, List.of(
+                s -> { s.x = 1; s.vy = 1; },
+                s -> { s.r1 = s.vy; s.r2 = s.x; }),
+                r -> r[0] == 1 && r[1] == 0 ? Expect.FORBIDDEN : Expect.ACCEPTABLE));
+
+        // Load Buffering：r1=x; y=1 || r2=y; x=1。(1,1) 表示两边的写都跑到了自己的读前面
+        tests.add(new Litmus("lb-plain", "r1=x; y=1 | r2=y; x=1", 2, List.of(
+                s -> { s.r1 = s.x; s.y = 1; },
+                s -> { s.r2 = s.y; s.x = 1; }),
+                r -> r[0] == 1 && r[1] == 1 ? Expect.INTERESTING : Expect.ACCEPTABLE));
+        tests.add(new Litmus("lb-volatile", "r1=vx; vy=1 | r2=vy; vx=1", 2, List.of(
+                s -> { s.r1 = s.vx; s.vy = 1; },
+                s -> { s.r2 = s.vy; s.vx = 1; }),
+                r -> r[0] == 1 && r[1] == 1 ? Expect.FORBIDDEN : Expect.ACCEPTABLE));
+
+        // IRIW：两个写者各写一个变量，两个读者以相反顺序读。(1,0,1,0) 表示两个读者对两次写的先后看法不一致
+        tests.add(new Litmus("iriw-plain", "x=1 | y=1 | r1=x; r2=y | r3=y; r4=x", 4, List.of(
+                s -> s.x = 1,
+                s -> s.y = 1,
+                s -> { s.r1 = s.x; s.r2 = s.y; },
+                s -> { s.r3 = s.y; s.r4 = s.x; }),
+                r -> r[0] == 1 && r[1] == 0 && r[2] == 1 && r[3] == 0 ? Expect.INTERESTING : Expect.ACCEPTABLE));
+        tests.add(new Litmus("iriw-volatile", "vx=1 | vy=1 | r1=vx; r2=vy | r3=vy; r4=vx", 4, List.of(
+                s -> s.vx = 1,
+                s -> s.vy = 1,
+                s -> { s.r1 = s.vx; s.r2 = s.vy; },
+                s -> { s.r3 = s.vy; s.r4 = s.vx; }),
+                r -> r[0] == 1 && r[1] == 0 && r[2] == 1 && r[3] == 0 ? Expect.FORBIDDEN : Expect.ACCEPTABLE));
+        return tests;
+    }
+
+    public static void main(String[] args) throws Exception {
+        long timeMs = 1_000;
+        int batch = 1024;
+        Pattern include = null;
+        for (int i = 0; i < args.length; i++) {
+            String a = args[i];
+            String v = (i + 1 < args.length) ? args[i + 1] : null;
+            switch (a) {
+                case "--time" -> {
+                    timeMs = Long.parseLong(requireValue(a, v).replace("_", ""));
+                    i++;
+                }
+                case "--batch" -> {
+                    batch = Integer.parseInt(requireValue(a, v).replace("_", ""));
+                    i++;
+                }
+                default -> {
+                    if (a.startsWith("--")) throw new IllegalArgumentException("Unknown option " + a);
+                    include = Pattern.compile(a);
+                }
+            }
+        }
+        if (timeMs <= 0) throw new IllegalArgumentException("--time must be > 0");
+        if (batch <= 0) throw new IllegalArgumentException("--batch must be > 0");
+
+        System.out.printf(Locale.ROOT, "time=%dms/test batch=%d cpus=%d jdk=%s%n",
+                timeMs, batch, Runtime.getRuntime().availableProcessors(), System.getProperty("java.version"));
+        int failed = 0;
+        int interesting = 0;
+        for (Litmus test : tests()) {
+            if (include != null && !include.matcher(test.name()).find()) continue;
+            Expect verdict = run(test, timeMs, batch);
+            if (verdict == Expect.FORBIDDEN) failed++;
+            if (verdict == Expect.INTERESTING) interesting++;
+        }
+        System.out.printf(Locale.ROOT, "%nsummary: failed=%d interesting=%d%n", failed, interesting);
+        if (failed > 0) System.exit(1);
+    }
+
+    /**
+     * 运行一个测试并打印结果直方图。
+     *
+     * @return 观察到的最严重分类
+     */
+    static Expect run(Litmus test, long timeMs, int batch) throws InterruptedException {
+        int actorCount = test.actors().size();
+        State[] states = new State[batch];
+        for (int i = 0; i < batch; i++) states[i] = new State();
+
+        Harness harness = new Harness(states, actorCount);
+        List<Thread> threads = new ArrayList<>();
+        for (int a = 0; a < actorCount; a++) {
+            Actor actor = test.actors().get(a);
+            threads.add(Thread.ofPlatform().daemon().name(test.name() + "-actor-" + a)
+                    .start(() -> harness.actorLoop(actor)));
+        }
+
+        long[] histogram = new long[1 << test.results()];
+        int[] r = new int[test.results()];
+        long samples = 0;
+        long deadline = System.nanoTime() + timeMs * 1_000_000L;
+        long start = System.nanoTime();
+        while (System.nanoTime() < deadline) {
+            harness.runBatch();
+            for (State s : states) {
+                r[0] = s.r1;
+                r[1] = s.r2;
+                if (r.length > 2) {
+                    r[2] = s.r3;
+                    r[3] = s.r4;
+                }
+                int key = 0;
+                for (int k = 0; k < r.length; k++) key |= (r[k] & 1) << k;
+                histogram[key]++;
+                s.reset();
+            }
+            samples += batch;
+        }
+        long elapsed = System.nanoTime() - start;
+        harness.stop();
+        for (Thread t : threads) t.join();
+
+        Expect worst = Expect.ACCEPTABLE;
+        System.out.printf(Locale.ROOT, "%n%s  [%s]  samples=%d (%.1fM/s)%n",
+                test.name(), test.description(), samples, samples * 1e3 / elapsed);
+        for (int key = 0; key < histogram.length; key++) {
+            if (histogram[key] == 0) continue;
+            int[] outcome = new int[test.results()];
+            StringBuilder label = new StringBuilder();
+            for (int k = 0; k < outcome.length; k++) {
+                outcome[k] = (key >>> k) & 1;
+                label.append(k == 0 ? "" : ", ").append(outcome[k]);
+            }
+            Expect expect = test.classify().apply(outcome);
+            if (expect.ordinal() > worst.ordinal()) worst = expect;
+            System.out.printf(Locale.ROOT, "  %-12s %14d  %s%n", label, histogram[key], expect);
+        }
+        System.out.println("  verdict: " + (worst == Expect.FORBIDDEN ? "FAILED" : worst == Expect.INTERESTING ? "INTERESTING" : "OK"));
+        return worst;
+    }
+
+    /**
+     * 控制线程与 actor 线程之间的批次同步：epoch 加一表示放行一批，actor 完成后给 finished 加一。
+     * 等待都用自旋（先 onSpinWait，长时间等不到再 yield），让各 actor 尽量在同一时刻开始。
+     */
+    static final class Harness {
+        private final State[] states;
+        private final int actors;
+        private final AtomicInteger finished = new AtomicInteger();
+        private volatile int epoch;
+        private volatile boolean stopped;
+
+        Harness(State[] states, int actors) {
+            this.states = states;
+            this.actors = actors;
+        }
+
+        void runBatch() {
+            finished.set(0);
+            epoch++;
+            int spins = 0;
+            while (finished.get() != actors) spins = backoff(spins);
+        }
+
+        void stop() {
+            stopped = true;
+            epoch++;
+        }
+
+        void actorLoop(Actor actor) {
+            int seen = 0;
+            while (true) {
+                int spins = 0;
+                while (epoch == seen) spins = backoff(spins);
+                seen = epoch;
+                if (stopped) return;
+                for (State s : states) actor.run(s);
+                finished.incrementAndGet();
+            }
+        }
+
+        private static int backoff(int spins) {
+            if (spins < 1_000) {
+                Thread.onSpinWait();
+            } else {
+                Thread.yield();
+            }
+            return spins + 1;
+        }
+    }
+
+    private static String requireValue(String flag, String value) {
+        if (value == null || value.startsWith("--")) throw new IllegalArgumentException("Missing value for " + flag);
+        return value;
+    }
+}
@@ -0,0 +1,450 @@
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 原子性 / 可见性 / 有序性的持续压力面板：把 AtomicitySummaryDemo、VisibilitySummaryDemo、OrderingSummaryDemo
+ * 的“跑一次、打印一次”改成按修复方式分阶段、三类问题并行持续运行，一张表同时给出正确性与性能。
+ *
+ * 修复方式（fix）：
+ * - broken：普通字段；
+ * - volatile：volatile 字段；
+ * - atomic：Atomic* 类 / VarHandle 原子操作；
+ * - locked：synchronized。
+ *
+ * 三类负载（每个阶段同时运行 {@code --timeMs} 毫秒）：
+ * - atomicity：{@code --threads} 个线程对同一计数器 ++，违规 = 丢失的更新数；吞吐 = 每秒自增次数；
+ * - visibility：工作线程自旋检查停止标志，控制线程反复置位，违规 = 超过 {@code --staleMs} 仍未停下的次数；
+ *   吞吐 = 工作线程每秒检查标志的次数，只累计真正看到标志的试验——靠 safety 兜底结束的试验不计，
+ *   否则 JIT 把普通读提出循环、删掉空循环后，每次兜底都会凭空加上 CHUNK 次“检查”；
+ * - ordering：store buffering（x=1; r1=y | y=1; r2=x），复用 {@link LitmusRunner.Harness} 批量执行，
+ *   违规 = 出现 (0, 0) 的次数；吞吐 = 每秒 litmus 样本数。
+ *
+ * 表中 cost 是该修复相对 broken 的吞吐比例；不适用的组合（如 volatile 对原子性）照样跑，用来说明“修错了地方”。
+ * broken 的自增用 opaque 读 + opaque 写：仍是非原子的读-改-写，但每次访问都真实发生，不会被 JIT 合并，cost 才是修复本身的价格。
+ * broken 的可见性试验出现过 stale 时，它的吞吐不是同一种循环的计数，可见性一行的 cost 显示为 -。
+ *
+ * 每个阶段有 threads + 5 个忙等线程（原子性 threads 个、可见性工作线程与控制线程、有序性两个 actor 与驱动线程）。
+ * CPU 数少于这个值时，正确的修复也可能仅因调度延迟超过 staleMs，这时可见性的 stale 计数打上 * 标记、不作为违规结论。
+ *
+ * 运行示例：
+ *   java StressDashboard
+ *   java StressDashboard --timeMs 3000 --threads 4 --staleMs 5
+ */
+public class StressDashboard {
+    enum Fix { BROKEN, VOLATILE, ATOMIC, LOCKED }
+
+    enum Property { ATOMICITY, VISIBILITY, ORDERING }
+
+    record Outcome(long ops, long violations, long nanos) {
+        double opsPerSecond() {
+            return ops * 1e9 / nanos;
+        }
+
+        double violationsPerSecond() {
+            return violations * 1e9 / nanos;
+        }
+    }
+
+    private static volatile boolean phaseStop;
+
+    public static void main(String[] args) throws Exception {
+        long timeMs = 1_000;
+        int threads = 2;
+        long staleMs = 10;
+        int batch = 1024;
+        for (int i = 0; i < args.length; i++) {
+            String a = args[i];
+            String v = (i + 1 < args.length) ? args[i + 1] : null;
+            switch (a) {
+                case "--timeMs" -> {
+                    timeMs = Long.parseLong(requireValue(a, v).replace("_", ""));
+                    i++;
+                }
+                case "--threads" -> {
+                    threads = Integer.parseInt(requireValue(a, v));
+                    i++;
+                }
+                case "--staleMs" -> {
+                    staleMs = Long.parseLong(requireValue(a, v));
+                    i++;
+                }
+                case "--batch" -> {
+                    batch = Integer.parseInt(requireValue(a, v).replace("_", ""));
+                    i++;
+                }
+                default -> throw new IllegalArgumentException("Unknown option " + a);
+            }
+        }
+        if (timeMs <= 0 || threads <= 0 || staleMs <= 0 || batch <= 0) {
+            throw new IllegalArgumentException("--timeMs, --threads, --staleMs and --batch must be > 0");
+        }
+
+        int cpus = Runtime.getRuntime().availableProcessors();
+        int spinning = threads + 5;
+        boolean oversubscribed = cpus < spinning;
+        System.out.printf(Locale.ROOT, "timeMs=%d/phase atomicityThreads=%d staleMs=%d batch=%d cpus=%d spinningThreads=%d%n",
+                timeMs, threads, staleMs, batch, cpus, spinning);
+        if (oversubscribed) {
+            System.out.printf(Locale.ROOT, "WARNING: %d spinning threads on %d cpus; visibility stale counts include "
+                    + "scheduling delay and are marked * (not violations)%n", spinning, cpus);
+        }
+
+        Map<Fix, Map<Property, Outcome>> results = new EnumMap<>(Fix.class);
+        for (Fix fix : Fix.values()) {
+            results.put(fix, runPhase(fix, timeMs, threads, staleMs, batch, oversubscribed));
+        }
+
+        System.out.printf(Locale.ROOT, "%n%-11s %-9s %16s %14s %14s %8s%n",
+                "property", "fix", "ops/s", "violations", "violations/s", "cost");
+        for (Property property : Property.values()) {
+            Outcome broken = results.get(Fix.BROKEN).get(property);
+            double base = broken.opsPerSecond();
+            // broken 的可见性试验只要有一次靠兜底结束，基线就不可信
+            boolean baseValid = base > 0 && (property != Property.VISIBILITY || broken.violations() == 0);
+            boolean unreliable = oversubscribed && property == Property.VISIBILITY;
+            for (Fix fix : Fix.values()) {
+                Outcome o = results.get(fix).get(property);
+                // 单核上可见性负载的工作线程可能一轮都没跑就看到了标志，吞吐为 0 时不给比例
+                String cost = baseValid && o.opsPerSecond() > 0
+                        ? String.format(Locale.ROOT, "%.2fx", base / o.opsPerSecond()) : "-";
+                System.out.printf(Locale.ROOT, "%-11s %-9s %16.0f %14s %14.1f %8s%n",
+                        property.name().toLowerCase(Locale.ROOT), fix.name().toLowerCase(Locale.ROOT),
+                        o.opsPerSecond(), o.violations() + (unreliable ? "*" : ""), o.violationsPerSecond(), cost);
+            }
+        }
+        System.out.println("cost = broken ops/s / this ops/s (higher is more expensive); - = no trustworthy baseline");
+        if (oversubscribed) {
+            System.out.println("* stale under cpu oversubscription: scheduling delay, not evidence of a visibility bug");
+        }
+    }
+
+    /** 一个阶段：同一种修复方式下，三类负载并行运行 timeMs 毫秒。 */
+    private static Map<Property, Outcome> runPhase(Fix fix, long timeMs, int threads, long staleMs, int batch,
+                                                   boolean oversubscribed) throws InterruptedException {
+        phaseStop = false;
+        Map<Property, Outcome> outcomes = new EnumMap<>(Property.class);
+        List<Thread> drivers = new ArrayList<>();
+        drivers.add(Thread.ofPlatform().name(fix + "-atomicity").start(() -> {
+            try {
+                Outcome o = atomicity(fix, threads);
+                synchronized (outcomes) {
+                    outcomes.put(Property.ATOMICITY, o);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        drivers.add(Thread.ofPlatform().name(fix + "-visibility").start(() -> {
+            try {
+                Outcome o = visibility(fix, staleMs);
+                synchronized (outcomes) {
+                    outcomes.put(Property.VISIBILITY, o);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        drivers.add(Thread.ofPlatform().name(fix + "-ordering").start(() -> {
+            try {
+                Outcome o = ordering(fix, batch);
+                synchronized (outcomes) {
+                    outcomes.put(Property.ORDERING, o);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+
+        Thread.sleep(timeMs);
+        phaseStop = true;
+        for (Thread t : drivers) t.join();
+        synchronized (outcomes) {
+            System.out.printf(Locale.ROOT, "phase %-8s atomicity lost=%d visibility stale=%d%s ordering (0,0)=%d%n",
+                    fix.name().toLowerCase(Locale.ROOT), outcomes.get(Property.ATOMICITY).violations(),
+                    outcomes.get(Property.VISIBILITY).violations(), oversubscribed ? "*" : "",
+                    outcomes.get(Property.ORDERING).violations());
+            return new EnumMap<>(outcomes);
+        }
+    }
+
+    // ---------------------------------------------------------------- atomicity
+
+    private static final class Counter {
+        private static final VarHandle PLAIN;
+
+        static {
+            try {
+                PLAIN = MethodHandles.lookup().findVarHandle(Counter.class, "plain", long.class);
+            } catch (ReflectiveOperationException e) {
+                throw new ExceptionInInitializerError(e);
+            }
+        }
+
+        long plain;
+        volatile long vol;
+        final AtomicLong atomic = new AtomicLong();
+
+        synchronized void incLocked() {
+            plain++;
+        }
+
+        /** 非原子的读-改-写；普通 ++ 在循环里会被合并成一次加法，opaque 访问不会。 */
+        void incRacy() {
+            PLAIN.setOpaque(this, (long) PLAIN.getOpaque(this) + 1);
+        }
+
+        synchronized long getLocked() {
+            return plain;
+        }
+    }
+
+    private static Outcome atomicity(Fix fix, int threads) throws InterruptedException {
+        Counter counter = new Counter();
+        long[] local = new long[threads];
+        Thread[] workers = new Thread[threads];
+        long start = System.nanoTime();
+        for (int t = 0; t < threads; t++) {
+            int id = t;
+            workers[t] = Thread.ofPlatform().name("atomicity-" + t).start(() -> {
+                long n = 0;
+                // 每 1024 次自增才检查一次停止标志，循环体里只有被测的那一次 ++
+                while (!phaseStop) {
+                    switch (fix) {
+                        case BROKEN -> {
+                            for (int i = 0; i < 1024; i++) counter.incRacy();
+                        }
+                        case VOLATILE -> {
+                            for (int i = 0; i < 1024; i++) counter.vol++;
+                        }
+                        case ATOMIC -> {
+                            for (int i = 0; i < 1024; i++) counter.atomic.incrementAndGet();
+                        }
+                        case LOCKED -> {
+                            for (int i = 0; i < 1024; i++) counter.incLocked();
+                        }
+                    }
+                    n += 1024;
+                }
+                local[id] = n;
+            });
+        }
+        for (Thread w : workers) w.join();
+        long elapsed = System.nanoTime() - start;
+
+        long expected = 0;
+        for (long n : local) expected += n;
+        long actual = switch (fix) {
+            case BROKEN -> counter.plain;
+            case VOLATILE -> counter.vol;
+            case ATOMIC -> counter.atomic.get();
+            case LOCKED -> counter.getLocked();
+        };
+        return new Outcome(expected, expected - actual, elapsed);
+    }
+
+    // ---------------------------------------------------------------- visibility
+
+    /** 普通读被提到内层循环外时，工作线程最多要跑完这么多轮才会重新读标志。 */
+    private static final int CHUNK = 1 << 26;
+
+    private static final class Flag {
+        boolean plain;
+        volatile boolean vol;
+        final AtomicBoolean atomic = new AtomicBoolean();
+        /** 控制线程放行的试验编号、工作线程确认停下的试验编号，以及超时后的兜底停止。 */
+        volatile int trial;
+        volatile int acked;
+        volatile boolean safety;
+        long iterations;
+
+        synchronized boolean getLocked() {
+            return plain;
+        }
+
+        synchronized void setLocked(boolean value) {
+            plain = value;
+        }
+    }
+
+    private static Outcome visibility(Fix fix, long staleMs) throws InterruptedException {
+        Flag flag = new Flag();
+        Thread worker = Thread.ofPlatform().daemon().name("visibility-worker").start(() -> {
+            int seen = 0;
+            while (true) {
+                int spins = 0;
+                while (flag.trial == seen) spins = backoff(spins);
+                seen = flag.trial;
+                if (seen < 0) return;
+                long n = spin(fix, flag);
+                // 兜底结束的试验不计：那时内层循环可能早已被折叠，计数没有意义
+                if (n >= 0) flag.iterations += n;
+                flag.acked = seen;
+            }
+        });
+
+        long staleNanos = staleMs * 1_000_000L;
+        long stale = 0;
+        int trial = 0;
+        long start = System.nanoTime();
+        while (!phaseStop) {
+            trial++;
+            flag.plain = false;
+            flag.atomic.set(false);
+            flag.vol = false;
+            flag.safety = false;
+            // trial 是 volatile 写：上面的复位对工作线程可见
+            flag.trial = trial;
+            long until = System.nanoTime() + ThreadLocalRandom.current().nextLong(200_000);
+            while (System.nanoTime() < until) Thread.onSpinWait();
+
+            switch (fix) {
+                case BROKEN -> flag.plain = true;
+                case VOLATILE -> flag.vol = true;
+                case ATOMIC -> flag.atomic.set(true);
+                case LOCKED -> flag.setLocked(true);
+            }
+            long signalled = System.nanoTime();
+            int spins = 0;
+            boolean late = false;
+            while (flag.acked != trial) {
+                if (!late && System.nanoTime() - signalled > staleNanos) {
+                    late = true;
+                    stale++;
+                    flag.safety = true;
+                }
+                spins = backoff(spins);
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        flag.trial = -1;
+        worker.join();
+        // acked 是 volatile 读，之后读 iterations 能看到工作线程最后一次累加
+        return new Outcome(flag.iterations, stale, elapsed);
+    }
+
+    /** 自旋直到看到标志并返回检查次数；每 CHUNK 轮检查一次 volatile 的 safety，兜底结束时返回 -1。 */
+    private static long spin(Fix fix, Flag flag) {
+        long n = 0;
+        while (true) {
+            switch (fix) {
+                case BROKEN -> {
+                    for (int i = 0; i < CHUNK; i++) {
+                        if (flag.plain) return n + i;
+                    }
+                }
+                case VOLATILE -> {
+                    for (int i = 0; i < CHUNK; i++) {
+                        if (flag.vol) return n + i;
+                    }
+                }
+                case ATOMIC -> {
+                    for (int i = 0; i < CHUNK; i++) {
+                        if (flag.atomic.get()) return n + i;
+                    }
+                }
+                case LOCKED -> {
+                    for (int i = 0; i < CHUNK; i++) {
+                        if (flag.getLocked()) return n + i;
+                    }
+                }
+            }
+            n += CHUNK;
+            if (flag.safety) return -1;
+        }
+    }
+
+    // ---------------------------------------------------------------- ordering
+
+    private static final VarHandle X;
+    private static final VarHandle Y;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            X = lookup.findVarHandle(LitmusRunner.State.class, "x", int.class);
+            Y = lookup.findVarHandle(LitmusRunner.State.class, "y", int.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private static Outcome ordering(Fix fix, int batch) throws InterruptedException {
+        LitmusRunner.Actor first;
+        LitmusRunner.Actor second;
+        switch (fix) {
+            case BROKEN -> {
+                first = s -> { s.x = 1; s.r1 = s.y; };
+                second = s -> { s.y = 1; s.r2 = s.x; };
+            }
+            case VOLATILE -> {
+                first = s -> { s.vx = 1; s.r1 = s.vy; };
+                second = s -> { s.vy = 1; s.r2 = s.vx; };
+            }
+            case ATOMIC -> {
+                // getAndSet 是原子读-改-写，自带全屏障（x86 上是 xchg）
+                first = s -> { X.getAndSet(s, 1); s.r1 = (int) Y.getVolatile(s); };
+                second = s -> { Y.getAndSet(s, 1); s.r2 = (int) X.getVolatile(s); };
+            }
+            case LOCKED -> {
+                first = s -> {
+                    synchronized (s) {
+                        s.x = 1;
+                        s.r1 = s.y;
+                    }
+                };
+                second = s -> {
+                    synchronized (s) {
+                        s.y = 1;
+                        s.r2 = s.x;
+                    }
+                };
+            }
+            default -> throw new IllegalStateException();
+        }
+
+        LitmusRunner.State[] states = new LitmusRunner.State[batch];
+        for (int i = 0; i < batch; i++) states[i] = new LitmusRunner.State();
+        LitmusRunner.Harness harness = new LitmusRunner.Harness(states, 2);
+        Thread a = Thread.ofPlatform().daemon().name("ordering-actor-0").start(() -> harness.actorLoop(first));
+        Thread b = Thread.ofPlatform().daemon().name("ordering-actor-1").start(() -> harness.actorLoop(second));
+
+        long samples = 0;
+        long violations = 0;
+        long start = System.nanoTime();
+        while (!phaseStop) {
+            harness.runBatch();
+            for (LitmusRunner.State s : states) {
+                if (s.r1 == 0 && s.r2 == 0) violations++;
+                s.reset();
+            }
+            samples += batch;
+        }
+        long elapsed = System.nanoTime() - start;
+        harness.stop();
+        a.join();
+        b.join();
+        return new Outcome(samples, violations, elapsed);
+    }
+
+    private static int backoff(int spins) {
+        if (spins < 1_000) {
+            Thread.onSpinWait();
+        } else {
+            Thread.yield();
+        }
+        return spins + 1;
+    }
+
+    private static String requireValue(String flag, String value) {
+        if (value == null || value.startsWith("--")) throw new IllegalArgumentException("Missing value for " + flag);
+        return value;
+    }
+}
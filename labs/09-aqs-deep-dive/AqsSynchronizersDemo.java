@@ -0,0 +1,303 @@
+import labs.aqs.AqsSynchronizers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * AqsSynchronizers 的正确性自检：每项打印 ok/FAIL，有任何 FAIL 时退出码为 1。
+ *
+ * - mutex：计数不丢失；公平模式下排队线程按 FIFO 拿到锁；限时 tryLock 超时返回 false；非持有者 unlock 抛异常；
+ * - permits：同时持有许可的线程数不超过上限；多 release 抛异常；许可耗尽时限时 tryAcquire 超时；
+ * - one-shot latch：open 前限时 await 超时，open 后所有等待者通过，之后 await 立即返回；
+ * - binary latch：连续多轮 open/close，每轮所有等待者恰好通过一次，close 后新来的 await 会阻塞；
+ * - interrupted timed：已被中断的线程调用限时获取一律抛 InterruptedException，即使此刻本可以立即成功。
+ *
+ * 运行示例：
+ *   java AqsSynchronizersDemo
+ *   java AqsSynchronizersDemo --threads 8 --loops 100000 --spins 0
+ */
+public class AqsSynchronizersDemo {
+    private static int failures;
+
+    public static void main(String[] args) throws Exception {
+        int threads = 4;
+        int loops = 200_000;
+        int spins = AqsSynchronizers.DEFAULT_SPINS;
+        for (int i = 0; i < args.length; i++) {
+            String a = args[i];
+            String v = (i + 1 < args.length) ? args[i + 1] : null;
+            switch (a) {
+                case "--threads" -> {
+                    threads = Integer.parseInt(requireValue(a, v));
+                    i++;
+                }
+                case "--loops" -> {
+                    loops = Integer.parseInt(requireValue(a, v));
+                    i++;
+                }
+                case "--spins" -> {
+                    spins = Integer.parseInt(requireValue(a, v));
+                    i++;
+                }
+                default -> throw new IllegalArgumentException("Unknown option " + a);
+            }
+        }
+        if (threads <= 1 || loops <= 0 || spins < 0) {
+            throw new IllegalArgumentException("--threads must be > 1, --loops > 0, --spins >= 0");
+        }
+
+        System.out.printf(Locale.ROOT, "threads=%d loops=%d spins=%d%n", threads, loops, spins);
+        for (boolean fair : new boolean[]{false, true}) {
+            mutexCounter(fair, threads, loops / (fair ? 10 : 1), spins);
+        }
+        mutexFifo(threads, spins);
+        mutexTimeoutAndOwner(spins);
+        permitsBound(threads, loops / 10, spins);
+        permitsTimeoutAndOverRelease(spins);
+        oneShotLatch(threads, spins);
+        binaryLatch(threads, 200, spins);
+        interruptedTimedAcquire(spins);
+
+        if (failures > 0) {
+            System.out.println("failures=" + failures);
+            System.exit(1);
+        }
+        System.out.println("all checks passed");
+    }
+
+    private static void mutexCounter(boolean fair, int threads, int loops, int spins) throws InterruptedException {
+        AqsSynchronizers.Mutex mutex = new AqsSynchronizers.Mutex(fair, spins);
+        int[] counter = new int[1];
+        long ms = runAll(threads, "mutex", index -> {
+            for (int j = 0; j < loops; j++) {
+                mutex.lock();
+                try {
+                    counter[0]++;
+                } finally {
+                    mutex.unlock();
+                }
+            }
+        });
+        check("mutex fair=" + fair + " counter", counter[0] == threads * loops && !mutex.isLocked(),
+                "expected=" + threads * loops + " actual=" + counter[0] + " ms=" + ms);
+    }
+
+    /** 主线程先持锁，让线程依次进入队列（等 queueLength 增长后再放下一个），释放后应按入队顺序拿锁。 */
+    private static void mutexFifo(int threads, int spins) throws InterruptedException {
+        AqsSynchronizers.Mutex mutex = new AqsSynchronizers.Mutex(true, spins);
+        List<Integer> order = new ArrayList<>();
+        Thread[] waiters = new Thread[threads];
+        mutex.lock();
+        for (int i = 0; i < threads; i++) {
+            int index = i;
+            waiters[i] = new Thread(() -> {
+                mutex.lock();
+                try {
+                    order.add(index);
+                } finally {
+                    mutex.unlock();
+                }
+            }, "fifo-" + i);
+            waiters[i].start();
+            while (mutex.getQueueLength() < i + 1) Thread.onSpinWait();
+        }
+        mutex.unlock();
+        for (Thread t : waiters) t.join();
+        boolean fifo = true;
+        for (int i = 0; i < order.size(); i++) fifo &= order.get(i) == i;
+        check("mutex fair FIFO", fifo && order.size() == threads, "order=" + order);
+    }
+
+    private static void mutexTimeoutAndOwner(int spins) throws InterruptedException {
+        AqsSynchronizers.Mutex mutex = new AqsSynchronizers.Mutex(false, spins);
+        mutex.lock();
+        boolean[] acquired = new boolean[1];
+        boolean[] unlockThrew = new boolean[1];
+        long[] waitedNanos = new long[1];
+        Thread other = new Thread(() -> {
+            try {
+                long t0 = System.nanoTime();
+                acquired[0] = mutex.tryLock(20, TimeUnit.MILLISECONDS);
+                waitedNanos[0] = System.nanoTime() - t0;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            try {
+                mutex.unlock();
+            } catch (IllegalMonitorStateException e) {
+                unlockThrew[0] = true;
+            }
+        }, "mutex-timeout");
+        other.start();
+        other.join();
+        mutex.unlock();
+        check("mutex tryLock timeout", !acquired[0] && waitedNanos[0] >= TimeUnit.MILLISECONDS.toNanos(20),
+                "waitedMs=" + waitedNanos[0] / 1_000_000);
+        check("mutex non-owner unlock throws", unlockThrew[0] && !mutex.isLocked(), "");
+    }
+
+    private static void permitsBound(int threads, int loops, int spins) throws InterruptedException {
+        for (boolean fair : new boolean[]{false, true}) {
+            AqsSynchronizers.BoundedPermits permits = new AqsSynchronizers.BoundedPermits(2, fair, spins);
+            AtomicInteger inside = new AtomicInteger();
+            AtomicInteger maxInside = new AtomicInteger();
+            long ms = runAll(threads, "permits", index -> {
+                for (int j = 0; j < loops; j++) {
+                    permits.acquire();
+                    try {
+                        int now = inside.incrementAndGet();
+                        maxInside.accumulateAndGet(now, Math::max);
+                        inside.decrementAndGet();
+                    } finally {
+                        permits.release();
+                    }
+                }
+            });
+            check("permits fair=" + fair + " bound", maxInside.get() <= 2 && permits.availablePermits() == 2,
+                    "maxInside=" + maxInside.get() + " available=" + permits.availablePermits() + " ms=" + ms);
+        }
+    }
+
+    private static void permitsTimeoutAndOverRelease(int spins) throws InterruptedException {
+        AqsSynchronizers.BoundedPermits permits = new AqsSynchronizers.BoundedPermits(2, false, spins);
+        boolean overReleaseThrew = false;
+        try {
+            permits.release();
+        } catch (IllegalStateException e) {
+            overReleaseThrew = true;
+        }
+        check("permits over-release throws", overReleaseThrew && permits.availablePermits() == 2, "");
+
+        permits.acquire(2);
+        long t0 = System.nanoTime();
+        boolean acquired = permits.tryAcquire(1, 20, TimeUnit.MILLISECONDS);
+        long waited = System.nanoTime() - t0;
+        permits.release(2);
+        check("permits tryAcquire timeout", !acquired && waited >= TimeUnit.MILLISECONDS.toNanos(20),
+                "waitedMs=" + waited / 1_000_000);
+    }
+
+    private static void oneShotLatch(int threads, int spins) throws InterruptedException {
+        AqsSynchronizers.OneShotLatch latch = new AqsSynchronizers.OneShotLatch(spins);
+        boolean early = latch.await(10, TimeUnit.MILLISECONDS);
+        AtomicInteger passed = new AtomicInteger();
+        Thread[] waiters = new Thread[threads];
+        for (int i = 0; i < threads; i++) {
+            waiters[i] = new Thread(() -> {
+                try {
+                    latch.await();
+                    passed.incrementAndGet();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }, "latch-" + i);
+            waiters[i].start();
+        }
+        latch.open();
+        for (Thread t : waiters) t.join();
+        boolean late = latch.await(0, TimeUnit.NANOSECONDS);
+        check("one-shot latch", !early && passed.get() == threads && late && latch.isOpen(),
+                "earlyAwait=" + early + " passed=" + passed.get() + " lateAwait=" + late);
+    }
+
+    /** 协调者每轮 open，等本轮所有等待者都通过后 close，再推进轮次；等待者通过后等下一轮才再次 await。 */
+    private static void binaryLatch(int threads, int rounds, int spins) throws InterruptedException {
+        AqsSynchronizers.BinaryLatch latch = new AqsSynchronizers.BinaryLatch(false, spins);
+        AtomicInteger arrived = new AtomicInteger();
+        AtomicInteger round = new AtomicInteger();
+        Thread[] waiters = new Thread[threads];
+        for (int i = 0; i < threads; i++) {
+            waiters[i] = new Thread(() -> {
+                try {
+                    for (int r = 0; r < rounds; r++) {
+                        while (round.get() != r) Thread.onSpinWait();
+                        latch.await();
+                        arrived.incrementAndGet();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }, "binary-" + i);
+            waiters[i].start();
+        }
+        boolean exact = true;
+        for (int r = 0; r < rounds; r++) {
+            latch.open();
+            while (arrived.get() < threads * (r + 1)) Thread.onSpinWait();
+            latch.close();
+            exact &= arrived.get() == threads * (r + 1);
+            round.incrementAndGet();
+        }
+        for (Thread t : waiters) t.join();
+        boolean blocked = !latch.await(10, TimeUnit.MILLISECONDS);
+        check("binary latch reuse", exact && arrived.get() == threads * rounds && blocked,
+                "rounds=" + rounds + " arrived=" + arrived.get() + " blockedAfterClose=" + blocked);
+    }
+
+    /** 锁空闲、许可充足、门闩已开时先自我中断，再调用限时版本；与 JDK 同类工具一样应抛异常并清除中断标记。 */
+    private static void interruptedTimedAcquire(int spins) {
+        AqsSynchronizers.Mutex mutex = new AqsSynchronizers.Mutex(false, spins);
+        AqsSynchronizers.BoundedPermits permits = new AqsSynchronizers.BoundedPermits(2, false, spins);
+        AqsSynchronizers.OneShotLatch oneShot = new AqsSynchronizers.OneShotLatch(spins);
+        oneShot.open();
+        AqsSynchronizers.BinaryLatch binary = new AqsSynchronizers.BinaryLatch(true, spins);
+        List<String> notThrown = new ArrayList<>();
+        if (!throwsWhenInterrupted(() -> mutex.tryLock(1, TimeUnit.SECONDS))) notThrown.add("tryLock");
+        if (!throwsWhenInterrupted(() -> permits.tryAcquire(1, 1, TimeUnit.SECONDS))) notThrown.add("tryAcquire");
+        if (!throwsWhenInterrupted(() -> oneShot.await(1, TimeUnit.SECONDS))) notThrown.add("oneShot.await");
+        if (!throwsWhenInterrupted(() -> binary.await(1, TimeUnit.SECONDS))) notThrown.add("binary.await");
+        check("interrupted timed acquire", notThrown.isEmpty() && !mutex.isLocked() && permits.availablePermits() == 2,
+                "notThrown=" + notThrown);
+    }
+
+    interface TimedAcquire {
+        boolean acquire() throws InterruptedException;
+    }
+
+    private static boolean throwsWhenInterrupted(TimedAcquire acquire) {
+        Thread.currentThread().interrupt();
+        try {
+            acquire.acquire();
+            return false;
+        } catch (InterruptedException e) {
+            return !Thread.currentThread().isInterrupted();
+        } finally {
+            Thread.interrupted();
+        }
+    }
+
+    interface Body {
+        void run(int index) throws InterruptedException;
+    }
+
+    private static long runAll(int threads, String prefix, Body body) throws InterruptedException {
+        Thread[] workers = new Thread[threads];
+        for (int i = 0; i < threads; i++) {
+            int index = i;
+            workers[i] = new Thread(() -> {
+                try {
+                    body.run(index);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }, prefix + "-" + i);
+        }
+        long begin = System.nanoTime();
+        for (Thread t : workers) t.start();
+        for (Thread t : workers) t.join();
+        return (System.nanoTime() - begin) / 1_000_000;
+    }
+
+    private static void check(String name, boolean ok, String detail) {
+        if (!ok) failures++;
+        System.out.printf(Locale.ROOT, "%-32s %-4s %s%n", name, ok ? "ok" : "FAIL", detail);
+    }
+
+    private static String requireValue(String flag, String value) {
+        if (value == null || value.startsWith("--")) throw new IllegalArgumentException("Missing value for " + flag);
+        return value;
+    }
+}
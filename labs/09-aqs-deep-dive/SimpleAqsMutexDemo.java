@@ -1,38 +1,39 @@
+import labs.aqs.AqsSynchronizers;
+
 import java.util.concurrent.CountDownLatch;
-import java.util.concurrent.locks.AbstractQueuedSynchronizer;
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
 
 public class SimpleAqsMutexDemo {
-    private static final class Mutex {
-        private final Sync sync = new Sync();
-
-        private static final class Sync extends AbstractQueuedSynchronizer {
-            @Override
-            protected boolean tryAcquire(int acquires) {
-                return compareAndSetState(0, 1);
-            }
-
-            @Override
-            protected boolean tryRelease(int releases) {
-                setState(0);
-                return true;
-            }
-
-            boolean isLocked() {
-                return getState() == 1;
-            }
-        }
-
-        void lock() {
-            sync.acquire(1);
-        }
+    /**
+     * 抢锁失败、进入 AQS 同步队列等待的那一段耗时；未开启 JFR 录制时几乎无开销。
+     */
+    @Name("labs.MutexContended")
+    @Label("Mutex Contended Acquire")
+    @Category({"Labs", "Locks"})
+    @StackTrace(false)
+    @Threshold("10 us")
+    static final class MutexContendedEvent extends Event {
+        @Label("Queue Length")
+        int queueLength;
+    }
 
-        void unlock() {
-            sync.release(1);
+    /** 互斥锁本身在 AqsSynchronizers.Mutex；这里只在快路径失败时包一层 JFR 事件。 */
+    private static void lock(AqsSynchronizers.Mutex mutex) {
+        if (mutex.tryLock()) {
+            return;
         }
-
-        boolean isLocked() {
-            return sync.isLocked();
+        MutexContendedEvent event = new MutexContendedEvent();
+        if (event.isEnabled()) {
+            event.queueLength = mutex.getQueueLength();
         }
+        event.begin();
+        mutex.lock();
+        event.commit();
     }
 
     private static int counter = 0;
@@ -41,7 +42,7 @@ public class SimpleAqsMutexDemo {
         int threads = args.length > 0 ? Integer.parseInt(args[0]) : 4;
         int loops = args.length > 1 ? Integer.parseInt(args[1]) : 200_000;
 
-        Mutex mutex = new Mutex();
+        AqsSynchronizers.Mutex mutex = new AqsSynchronizers.Mutex();
         CountDownLatch start = new CountDownLatch(1);
         CountDownLatch done = new CountDownLatch(threads);
 
@@ -50,7 +51,7 @@ public class SimpleAqsMutexDemo {
                 try {
                     start.await();
                     for (int j = 0; j < loops; j++) {
-                        mutex.lock();
+                        lock(mutex);
                         try {
                             counter++;
                         } finally {
@@ -0,0 +1,359 @@
+package labs.aqs;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.AbstractQueuedSynchronizer;
+import java.util.concurrent.locks.Condition;
+
+/**
+ * 基于 AQS 的同步器小库：把 SimpleAqsMutexDemo 里的私有 Mutex 抽出来，并补齐共享模式的几种常见同步器。
+ *
+ * - {@link Mutex}：不可重入互斥锁（独占模式，state 0/1，记录持有者）；
+ * - {@link BoundedPermits}：有上限的共享许可（共享模式，state = 可用许可数，release 超过上限抛异常）；
+ * - {@link OneShotLatch}：一次性门闩（state 0 关 / 1 开，打开后永不关闭）；
+ * - {@link BinaryLatch}：可复用的二元门闩（open 放行所有等待者，close 之后新来的再次等待）。
+ *
+ * 共同特性：
+ * - 先自旋再阻塞：进入 AQS 队列（park）之前先自旋 {@code spins} 次 tryAcquire，
+ *   临界区很短时省掉一次 park/unpark（各约数微秒）；单核机器上自旋没有意义，默认自旋次数为 0；
+ * - 限时获取：{@code tryLock/tryAcquire/await(timeout, unit)} 基于 AQS 的 {@code tryAcquireNanos/tryAcquireSharedNanos}；
+ *   与不限时版本一样先检查中断，已被中断的线程抛 InterruptedException，即使快路径本可以成功（同 ReentrantLock/Semaphore/CountDownLatch）；
+ * - 公平性开关：fair=true 时 tryAcquire 先检查 {@code hasQueuedPredecessors()}，队列里有人就不插队，自旋阶段也随之失效。
+ *   门闩只有“开/关”两种状态，放行时所有等待者一起通过，不需要公平性开关。
+ *
+ * 放在 labs.aqs 包里，章节内的 Demo 与 benchmarks 模块（AqsSynchronizersBench 等）都直接引用这一份。
+ */
+public final class AqsSynchronizers {
+    /** 多核默认自旋次数；单核时自旋只会拖延持锁线程，取 0。 */
+    public static final int DEFAULT_SPINS = Runtime.getRuntime().availableProcessors() > 1 ? 64 : 0;
+
+    private AqsSynchronizers() {
+    }
+
+    private abstract static class SpinningSync extends AbstractQueuedSynchronizer {
+        final boolean fair;
+        final int spins;
+
+        SpinningSync(boolean fair, int spins) {
+            if (spins < 0) throw new IllegalArgumentException("spins must be >= 0");
+            this.fair = fair;
+            this.spins = spins;
+        }
+
+        int state() {
+            return getState();
+        }
+
+        /** 入队前的自旋阶段；队列里已经有人在等时直接放弃，避免和刚被唤醒的线程抢。 */
+        boolean spinExclusive(int arg) {
+            for (int i = 0; i < spins; i++) {
+                if (tryAcquire(arg)) return true;
+                if (hasQueuedThreads()) return false;
+                Thread.onSpinWait();
+            }
+            return false;
+        }
+
+        boolean spinShared(int arg) {
+            for (int i = 0; i < spins; i++) {
+                if (tryAcquireShared(arg) >= 0) return true;
+                if (hasQueuedThreads()) return false;
+                Thread.onSpinWait();
+            }
+            return false;
+        }
+    }
+
+    /** 不可重入互斥锁；持有者再次 lock 会自己把自己锁死，这是“不可重入”的代价。 */
+    public static final class Mutex {
+        private static final class Sync extends SpinningSync {
+            Sync(boolean fair, int spins) {
+                super(fair, spins);
+            }
+
+            @Override
+            protected boolean tryAcquire(int acquires) {
+                if (fair && hasQueuedPredecessors()) return false;
+                return nonfairTryAcquire();
+            }
+
+            boolean nonfairTryAcquire() {
+                if (compareAndSetState(0, 1)) {
+                    setExclusiveOwnerThread(Thread.currentThread());
+                    return true;
+                }
+                return false;
+            }
+
+            @Override
+            protected boolean tryRelease(int releases) {
+                if (getExclusiveOwnerThread() != Thread.currentThread()) throw new IllegalMonitorStateException();
+                setExclusiveOwnerThread(null);
+                setState(0);
+                return true;
+            }
+
+            @Override
+            protected boolean isHeldExclusively() {
+                return getExclusiveOwnerThread() == Thread.currentThread();
+            }
+
+            Condition newCondition() {
+                return new ConditionObject();
+            }
+        }
+
+        private final Sync sync;
+
+        public Mutex() {
+            this(false, DEFAULT_SPINS);
+        }
+
+        public Mutex(boolean fair, int spins) {
+            this.sync = new Sync(fair, spins);
+        }
+
+        public void lock() {
+            if (!sync.tryAcquire(1) && !sync.spinExclusive(1)) sync.acquire(1);
+        }
+
+        public void lockInterruptibly() throws InterruptedException {
+            if (Thread.interrupted()) throw new InterruptedException();
+            if (!sync.tryAcquire(1) && !sync.spinExclusive(1)) sync.acquireInterruptibly(1);
+        }
+
+        /** 只尝试一次，不自旋、不排队；即使 fair=true 也允许插队（同 ReentrantLock.tryLock）。 */
+        public boolean tryLock() {
+            return sync.nonfairTryAcquire();
+        }
+
+        public boolean tryLock(long timeout, TimeUnit unit) throws InterruptedException {
+            if (Thread.interrupted()) throw new InterruptedException();
+            if (sync.tryAcquire(1) || sync.spinExclusive(1)) return true;
+            return sync.tryAcquireNanos(1, unit.toNanos(timeout));
+        }
+
+        public void unlock() {
+            sync.release(1);
+        }
+
+        public boolean isLocked() {
+            return sync.state() == 1;
+        }
+
+        public boolean isFair() {
+            return sync.fair;
+        }
+
+        public boolean hasQueuedThreads() {
+            return sync.hasQueuedThreads();
+        }
+
+        public int getQueueLength() {
+            return sync.getQueueLength();
+        }
+
+        public Condition newCondition() {
+            return sync.newCondition();
+        }
+    }
+
+    /** 有上限的共享许可：初始与最大许可数都是 permits，多 release 视为编程错误。 */
+    public static final class BoundedPermits {
+        private static final class Sync extends SpinningSync {
+            final int max;
+
+            Sync(int permits, boolean fair, int spins) {
+                super(fair, spins);
+                this.max = permits;
+                setState(permits);
+            }
+
+            @Override
+            protected int tryAcquireShared(int acquires) {
+                while (true) {
+                    if (fair && hasQueuedPredecessors()) return -1;
+                    int available = getState();
+                    int remaining = available - acquires;
+                    if (remaining < 0 || compareAndSetState(available, remaining)) return remaining;
+                }
+            }
+
+            @Override
+            protected boolean tryReleaseShared(int releases) {
+                while (true) {
+                    int current = getState();
+                    int next = current + releases;
+                    if (next > max) throw new IllegalStateException("release exceeds bound: " + next + " > " + max);
+                    if (compareAndSetState(current, next)) return true;
+                }
+            }
+        }
+
+        private final Sync sync;
+
+        public BoundedPermits(int permits) {
+            this(permits, false, DEFAULT_SPINS);
+        }
+
+        public BoundedPermits(int permits, boolean fair, int spins) {
+            if (permits <= 0) throw new IllegalArgumentException("permits must be > 0");
+            this.sync = new Sync(permits, fair, spins);
+        }
+
+        public void acquire() throws InterruptedException {
+            acquire(1);
+        }
+
+        public void acquire(int permits) throws InterruptedException {
+            checkPermits(permits);
+            if (Thread.interrupted()) throw new InterruptedException();
+            if (sync.tryAcquireShared(permits) < 0 && !sync.spinShared(permits)) sync.acquireSharedInterruptibly(permits);
+        }
+
+        public boolean tryAcquire() {
+            return sync.tryAcquireShared(1) >= 0;
+        }
+
+        public boolean tryAcquire(int permits, long timeout, TimeUnit unit) throws InterruptedException {
+            checkPermits(permits);
+            if (Thread.interrupted()) throw new InterruptedException();
+            if (sync.tryAcquireShared(permits) >= 0 || sync.spinShared(permits)) return true;
+            return sync.tryAcquireSharedNanos(permits, unit.toNanos(timeout));
+        }
+
+        public void release() {
+            release(1);
+        }
+
+        public void release(int permits) {
+            checkPermits(permits);
+            sync.releaseShared(permits);
+        }
+
+        public int availablePermits() {
+            return sync.state();
+        }
+
+        public int maxPermits() {
+            return sync.max;
+        }
+
+        private void checkPermits(int permits) {
+            if (permits <= 0 || permits > sync.max) {
+                throw new IllegalArgumentException("permits must be in 1.." + sync.max + ": " + permits);
+            }
+        }
+    }
+
+    /** 一次性门闩：等价于 new CountDownLatch(1)，open 之后 await 永远立即返回。 */
+    public static final class OneShotLatch {
+        private static final class Sync extends SpinningSync {
+            Sync(int spins) {
+                super(false, spins);
+            }
+
+            @Override
+            protected int tryAcquireShared(int ignored) {
+                return getState() == 1 ? 1 : -1;
+            }
+
+            @Override
+            protected boolean tryReleaseShared(int ignored) {
+                if (getState() == 1) return false;
+                setState(1);
+                return true;
+            }
+        }
+
+        private final Sync sync;
+
+        public OneShotLatch() {
+            this(DEFAULT_SPINS);
+        }
+
+        public OneShotLatch(int spins) {
+            this.sync = new Sync(spins);
+        }
+
+        public void await() throws InterruptedException {
+            if (Thread.interrupted()) throw new InterruptedException();
+            if (sync.tryAcquireShared(1) < 0 && !sync.spinShared(1)) sync.acquireSharedInterruptibly(1);
+        }
+
+        public boolean await(long timeout, TimeUnit unit) throws InterruptedException {
+            if (Thread.interrupted()) throw new InterruptedException();
+            if (sync.tryAcquireShared(1) >= 0 || sync.spinShared(1)) return true;
+            return sync.tryAcquireSharedNanos(1, unit.toNanos(timeout));
+        }
+
+        public void open() {
+            sync.releaseShared(1);
+        }
+
+        public boolean isOpen() {
+            return sync.state() == 1;
+        }
+    }
+
+    /**
+     * 可复用的二元门闩：open 唤醒当前所有等待者并保持打开，close 之后新来的 await 再次阻塞。
+     * 被 open 唤醒、但还没来得及重新检查状态就遇到 close 的线程会继续等下一次 open——
+     * 门闩只保证“打开期间到达的线程能通过”，需要“本轮所有人都通过”时由调用方确认到达后再 close。
+     */
+    public static final class BinaryLatch {
+        private static final class Sync extends SpinningSync {
+            Sync(boolean open, int spins) {
+                super(false, spins);
+                setState(open ? 1 : 0);
+            }
+
+            @Override
+            protected int tryAcquireShared(int ignored) {
+                return getState() == 1 ? 1 : -1;
+            }
+
+            @Override
+            protected boolean tryReleaseShared(int ignored) {
+                setState(1);
+                return true;
+            }
+
+            void close() {
+                setState(0);
+            }
+        }
+
+        private final Sync sync;
+
+        public BinaryLatch() {
+            this(false, DEFAULT_SPINS);
+        }
+
+        public BinaryLatch(boolean open, int spins) {
+            this.sync = new Sync(open, spins);
+        }
+
+        public void await() throws InterruptedException {
+            if (Thread.interrupted()) throw new InterruptedException();
+            if (sync.tryAcquireShared(1) < 0 && !sync.spinShared(1)) sync.acquireSharedInterruptibly(1);
+        }
+
+        public boolean await(long timeout, TimeUnit unit) throws InterruptedException {
+            if (Thread.interrupted()) throw new InterruptedException();
+            if (sync.tryAcquireShared(1) >= 0 || sync.spinShared(1)) return true;
+            return sync.tryAcquireSharedNanos(1, unit.toNanos(timeout));
+        }
+
+        public void open() {
+            sync.releaseShared(1);
+        }
+
+        public void close() {
+            sync.close();
+        }
+
+        public boolean isOpen() {
+            return sync.state() == 1;
+        }
+    }
+}
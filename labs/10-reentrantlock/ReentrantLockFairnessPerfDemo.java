@@ -1,7 +1,32 @@
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.locks.ReentrantLock;
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
 
 public class ReentrantLockFairnessPerfDemo {
+    /**
+     * lock() 的等待耗时；阈值以下（基本就是无争用的快路径）不记录。
+     */
+    @Name("labs.LockAcquire")
+    @Label("ReentrantLock Acquire")
+    @Category({"Labs", "Locks"})
+    @StackTrace(false)
+    @Threshold("10 us")
+    static final class LockAcquireEvent extends Event {
+        @Label("Lock")
+        String lock;
+
+        @Label("Fair")
+        boolean fair;
+
+        @Label("Queue Length")
+        int queueLength;
+    }
+
     public static void main(String[] args) throws Exception {
         int threads = args.length > 0 ? Integer.parseInt(args[0]) : 4;
         int loops = args.length > 1 ? Integer.parseInt(args[1]) : 500_000;
@@ -20,7 +45,16 @@ public class ReentrantLockFairnessPerfDemo {
                 try {
                     start.await();
                     for (int j = 0; j < loops; j++) {
+                        LockAcquireEvent event = new LockAcquireEvent();
+                        event.begin();
                         lock.lock();
+                        event.end();
+                        if (event.shouldCommit()) {
+                            event.lock = label;
+                            event.fair = lock.isFair();
+                            event.queueLength = lock.getQueueLength();
+                            event.commit();
+                        }
                         try {
                             counter[0]++;
                         } finally {
@@ -4,8 +4,33 @@ import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.LongAdder;
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
 
 public class BlockingQueueThroughputCompareDemo {
+    /**
+     * put/take 被阻塞的耗时（队列满/空时才会超过阈值）。
+     */
+    @Name("labs.QueueBlocked")
+    @Label("BlockingQueue Blocked")
+    @Category({"Labs", "Queues"})
+    @StackTrace(false)
+    @Threshold("10 us")
+    static final class QueueBlockedEvent extends Event {
+        @Label("Queue")
+        String queue;
+
+        @Label("Operation")
+        String operation;
+
+        @Label("Size After")
+        int sizeAfter;
+    }
+
     public static void main(String[] args) throws Exception {
         int totalOps = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
         int producers = args.length > 1 ? Integer.parseInt(args[1]) : 2;
@@ -34,7 +59,16 @@ public class BlockingQueueThroughputCompareDemo {
                 await(startGate);
                 try {
                     for (int j = 0; j < count; j++) {
+                        QueueBlockedEvent event = new QueueBlockedEvent();
+                        event.begin();
                         queue.put(j);
+                        event.end();
+                        if (event.shouldCommit()) {
+                            event.queue = name;
+                            event.operation = "put";
+                            event.sizeAfter = queue.size();
+                            event.commit();
+                        }
                     }
                 } catch (InterruptedException e) {
                     Thread.currentThread().interrupt();
@@ -51,7 +85,16 @@ public class BlockingQueueThroughputCompareDemo {
                 await(startGate);
                 try {
                     for (int j = 0; j < count; j++) {
+                        QueueBlockedEvent event = new QueueBlockedEvent();
+                        event.begin();
                         queue.take();
+                        event.end();
+                        if (event.shouldCommit()) {
+                            event.queue = name;
+                            event.operation = "take";
+                            event.sizeAfter = queue.size();
+                            event.commit();
+                        }
                     }
                     consumed.add(count);
                 } catch (InterruptedException e) {
@@ -5,11 +5,65 @@ import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Period;
+import jdk.jfr.StackTrace;
 
 public class ThreadPoolExecutorSizingDemo {
+    /**
+     * 周期采样线程池状态（默认每 100ms 一次），在 JMC 里可以直接画出队列深度曲线。
+     */
+    @Name("labs.ExecutorStats")
+    @Label("Executor Stats")
+    @Category({"Labs", "Executors"})
+    @StackTrace(false)
+    @Period("100 ms")
+    static final class ExecutorStatsEvent extends Event {
+        @Label("Pool Size")
+        int poolSize;
+
+        @Label("Active Count")
+        int activeCount;
+
+        @Label("Queue Size")
+        int queueSize;
+
+        @Label("Completed Tasks")
+        long completedTasks;
+    }
+
+    /**
+     * 每次拒绝一条事件，附带拒绝时的线程数与队列深度。
+     */
+    @Name("labs.TaskRejected")
+    @Label("Task Rejected")
+    @Category({"Labs", "Executors"})
+    static final class TaskRejectedEvent extends Event {
+        @Label("Task")
+        String task;
+
+        @Label("Pool Size")
+        int poolSize;
+
+        @Label("Queue Size")
+        int queueSize;
+    }
+
     public static void main(String[] args) throws Exception {
-        RejectedExecutionHandler rejectedHandler = (task, executor) ->
-                System.out.println("rejected " + task);
+        RejectedExecutionHandler rejectedHandler = (task, executor) -> {
+            System.out.println("rejected " + task);
+            TaskRejectedEvent event = new TaskRejectedEvent();
+            if (event.shouldCommit()) {
+                event.task = task.toString();
+                event.poolSize = executor.getPoolSize();
+                event.queueSize = executor.getQueue().size();
+                event.commit();
+            }
+        };
         ThreadPoolExecutor executor = new ThreadPoolExecutor(
                 1,
                 2,
@@ -20,6 +74,16 @@ public class ThreadPoolExecutorSizingDemo {
                 rejectedHandler
         );
 
+        Runnable statsHook = () -> {
+            ExecutorStatsEvent event = new ExecutorStatsEvent();
+            event.poolSize = executor.getPoolSize();
+            event.activeCount = executor.getActiveCount();
+            event.queueSize = executor.getQueue().size();
+            event.completedTasks = executor.getCompletedTaskCount();
+            event.commit();
+        };
+        FlightRecorder.addPeriodicEvent(ExecutorStatsEvent.class, statsHook);
+
         CountDownLatch done = new CountDownLatch(3);
         for (int i = 1; i <= 4; i++) {
             executor.execute(new DemoTask(i, done));
@@ -34,6 +98,7 @@ public class ThreadPoolExecutorSizingDemo {
 
         executor.shutdown();
         executor.awaitTermination(5, TimeUnit.SECONDS);
+        FlightRecorder.removePeriodicEvent(statsHook);
     }
 
     private static void printStatus(String label, ThreadPoolExecutor executor) {
@@ -0,0 +1,215 @@
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+/**
+ * 虚拟线程钉住（pinning）检测：在 synchronized 内阻塞 vs 在 ReentrantLock 内阻塞。
+ *
+ * 每个虚拟线程执行 rounds 轮“加锁 → 更新共享计数（同 04-synchronized/SynchronizedVisibilityDemo）→ 锁内 sleep → 解锁”。
+ * JDK 21 里在 synchronized 内阻塞的虚拟线程无法卸载，整个载体线程被占住；ReentrantLock 内阻塞则正常卸载。
+ *
+ * 运行期间用进程内 JFR 录制 {@code jdk.VirtualThreadPinned} 事件，报告：
+ * - 钉住事件数、总时长、平均/最大时长；
+ * - 载体损失：钉住总时长 /（耗时 × 载体数），即载体线程有多大比例的时间被“占着却在睡觉”；
+ * - 与同一负载下 ReentrantLock 的耗时与吞吐对比。
+ *
+ * locks=0 时每个任务一把锁（没有锁争用，差距完全来自钉住）；locks=1 时所有任务争同一把锁。
+ * 载体数默认等于 CPU 数，可用 {@code -Djdk.virtualThreadScheduler.parallelism=N} 调整。
+ *
+ * 运行示例：
+ *   java VirtualThreadPinningDemo
+ *   java VirtualThreadPinningDemo --tasks 1000 --blockMs 10 --rounds 2 --locks 0
+ *   java -Djdk.virtualThreadScheduler.parallelism=4 VirtualThreadPinningDemo --thresholdMs 5
+ */
+public class VirtualThreadPinningDemo {
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+    private record Config(int tasks, int rounds, long blockMs, int locks, long thresholdMs) {
+    }
+
+    private record Result(String name, long elapsedNanos, long sharedCount, List<RecordedEvent> pinned) {
+        double tasksPerSecond(int tasks) {
+            return tasks * 1e9 / elapsedNanos;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Config config = parseArgs(args);
+        int carriers = Integer.getInteger("jdk.virtualThreadScheduler.parallelism",
+                Runtime.getRuntime().availableProcessors());
+        System.out.printf(Locale.ROOT, "tasks=%d rounds=%d blockMs=%d locks=%s carriers=%d jfrThresholdMs=%d%n",
+                config.tasks(), config.rounds(), config.blockMs(),
+                config.locks() == 0 ? "per-task" : String.valueOf(config.locks()), carriers, config.thresholdMs());
+
+        // 先各跑一小轮，避免类加载与 JIT 算进第一组结果
+        Config warmup = new Config(Math.min(config.tasks(), carriers * 2), 1, 1, config.locks(), config.thresholdMs());
+        run("warmup", warmup, true);
+        run("warmup", warmup, false);
+
+        Result sync = run("synchronized", config, true);
+        Result lock = run("reentrant-lock", config, false);
+
+        System.out.printf(Locale.ROOT, "%-16s %10s %10s %8s %12s %10s %10s %12s%n",
+                "variant", "elapsedMs", "tasks/s", "pinned", "pinnedMs", "avgMs", "maxMs", "carrierLost");
+        for (Result r : List.of(sync, lock)) {
+            long totalNanos = 0;
+            long maxNanos = 0;
+            for (RecordedEvent e : r.pinned()) {
+                long d = e.getDuration().toNanos();
+                totalNanos += d;
+                maxNanos = Math.max(maxNanos, d);
+            }
+            int n = r.pinned().size();
+            double lost = (double) totalNanos / ((double) r.elapsedNanos() * carriers);
+            System.out.printf(Locale.ROOT, "%-16s %10.1f %10.1f %8d %12.1f %10.2f %10.2f %11.1f%%%n",
+                    r.name(), r.elapsedNanos() / 1e6, r.tasksPerSecond(config.tasks()), n, totalNanos / 1e6,
+                    n == 0 ? 0.0 : totalNanos / 1e6 / n, maxNanos / 1e6, Math.min(100.0, lost * 100));
+            long expected = (long) config.tasks() * config.rounds();
+            if (r.sharedCount() != expected) {
+                throw new IllegalStateException(r.name() + " lost updates: " + r.sharedCount() + " != " + expected);
+            }
+        }
+        System.out.printf(Locale.ROOT, "synchronized/reentrant-lock elapsed ratio=%.2f%n",
+                (double) sync.elapsedNanos() / lock.elapsedNanos());
+
+        if (!sync.pinned().isEmpty()) {
+            System.out.println("first pinned stack (synchronized):");
+            var frames = sync.pinned().get(0).getStackTrace();
+            if (frames != null) {
+                frames.getFrames().stream().limit(6).forEach(f -> System.out.println("  at "
+                        + f.getMethod().getType().getName() + "." + f.getMethod().getName() + ":" + f.getLineNumber()));
+            }
+        }
+    }
+
+    private static Result run(String name, Config config, boolean useSynchronized) throws Exception {
+        int lockCount = config.locks() == 0 ? config.tasks() : config.locks();
+        Object[] monitors = new Object[lockCount];
+        ReentrantLock[] locks = new ReentrantLock[lockCount];
+        for (int i = 0; i < lockCount; i++) {
+            monitors[i] = new Object();
+            locks[i] = new ReentrantLock();
+        }
+        // 每把锁保护自己的计数，最后汇总校验
+        long[] counts = new long[lockCount];
+        Duration block = Duration.ofMillis(config.blockMs());
+
+        Path file = Files.createTempFile("pinning-", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(PINNED_EVENT).withThreshold(Duration.ofMillis(config.thresholdMs())).withStackTrace();
+            recording.start();
+
+            long start = System.nanoTime();
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (int t = 0; t < config.tasks(); t++) {
+                    int slot = t % lockCount;
+                    executor.execute(() -> {
+                        for (int r = 0; r < config.rounds(); r++) {
+                            if (useSynchronized) {
+                                synchronized (monitors[slot]) {
+                                    counts[slot]++;
+                                    sleep(block);
+                                }
+                            } else {
+                                locks[slot].lock();
+                                try {
+                                    counts[slot]++;
+                                    sleep(block);
+                                } finally {
+                                    locks[slot].unlock();
+                                }
+                            }
+                        }
+                    });
+                }
+            }
+            long elapsed = System.nanoTime() - start;
+
+            recording.stop();
+            recording.dump(file);
+            List<RecordedEvent> pinned = RecordingFile.readAllEvents(file).stream()
+                    .filter(e -> e.getEventType().getName().equals(PINNED_EVENT))
+                    .toList();
+            long sum = 0;
+            for (int i = 0; i < lockCount; i++) {
+                // 读计数前先拿一次锁，建立 happens-before
+                if (useSynchronized) {
+                    synchronized (monitors[i]) {
+                        sum += counts[i];
+                    }
+                } else {
+                    locks[i].lock();
+                    try {
+                        sum += counts[i];
+                    } finally {
+                        locks[i].unlock();
+                    }
+                }
+            }
+            return new Result(name, elapsed, sum, pinned);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static void sleep(Duration d) {
+        try {
+            Thread.sleep(d);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static Config parseArgs(String[] args) {
+        int tasks = 200;
+        int rounds = 1;
+        long blockMs = 20;
+        int locks = 0;
+        long thresholdMs = 0;
+        for (int i = 0; i < args.length; i++) {
+            String a = args[i];
+            String v = (i + 1 < args.length) ? args[i + 1] : null;
+            switch (a) {
+                case "--tasks" -> {
+                    tasks = Integer.parseInt(requireValue(a, v));
+                    i++;
+                }
+                case "--rounds" -> {
+                    rounds = Integer.parseInt(requireValue(a, v));
+                    i++;
+                }
+                case "--blockMs" -> {
+                    blockMs = Long.parseLong(requireValue(a, v));
+                    i++;
+                }
+                case "--locks" -> {
+                    locks = Integer.parseInt(requireValue(a, v));
+                    i++;
+                }
+                case "--thresholdMs" -> {
+                    thresholdMs = Long.parseLong(requireValue(a, v));
+                    i++;
+                }
+                default -> throw new IllegalArgumentException("Unknown option " + a);
+            }
+        }
+        if (tasks <= 0 || rounds <= 0 || blockMs < 0 || locks < 0 || thresholdMs < 0) {
+            throw new IllegalArgumentException("--tasks/--rounds must be > 0, --blockMs/--locks/--thresholdMs >= 0");
+        }
+        return new Config(tasks, rounds, blockMs, locks, thresholdMs);
+    }
+
+    private static String requireValue(String flag, String value) {
+        if (value == null || value.startsWith("--")) throw new IllegalArgumentException("Missing value for " + flag);
+        return value;
+    }
+}
@@ -0,0 +1,188 @@
+package labs.benchmarks;
+
+import labs.aqs.AqsSynchronizers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 延伸自 09-aqs-deep-dive/AqsSynchronizers（依赖该章节模块的 labs.aqs 包）：自写的 AQS 同步器与 JDK 同类工具对比。
+ *
+ * - mutex：{@link AqsSynchronizers.Mutex} vs {@link ReentrantLock}，每次操作为一次 lock/unlock；
+ * - permits：{@link AqsSynchronizers.BoundedPermits} vs {@link Semaphore}，每次操作为一次 acquire/release；
+ * - one_shot：{@link AqsSynchronizers.OneShotLatch} vs {@code new CountDownLatch(1)}，每轮一个新门闩（计时前预先创建）；
+ * - binary：{@link AqsSynchronizers.BinaryLatch} 每轮 open/close 复用同一个对象，
+ *   JDK 没有可复用的二元门闩，对照组用惯常写法“每轮换一个新的 CountDownLatch(1)”，与 one_shot 的 jdk 组相同。
+ *
+ * 方法 {@code acquire} 跑 mutex/permits，{@code latch} 跑两种门闩；门闩的操作数是“等待者通过次数”（rounds × threads），
+ * 延迟为协调线程 open 到本轮所有等待者通过的时间。
+ * fair 只对 mutex 与 permits 有意义（两边都传给构造器），所以放在只有 {@code acquire} 使用的 {@link Acquire} 里，
+ * 门闩不会按 fair 多跑出一组重复的行；spins 只影响 impl=LAB，单核机器上自旋只会拖慢持有者，用 {@code -p spins=0,64} 对比。
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AqsSynchronizersBench {
+    public enum Primitive { MUTEX, PERMITS }
+
+    public enum LatchKind { ONE_SHOT, BINARY }
+
+    public enum Impl { LAB, JDK }
+
+    @State(Scope.Benchmark)
+    public static class Acquire {
+        @Param({"MUTEX", "PERMITS"})
+        Primitive primitive;
+
+        @Param({"false", "true"})
+        boolean fair;
+    }
+
+    @State(Scope.Benchmark)
+    public static class Latch {
+        @Param({"ONE_SHOT", "BINARY"})
+        LatchKind latch;
+    }
+
+    @Param({"LAB", "JDK"})
+    Impl impl;
+
+    @Param({"1", "4"})
+    int threads;
+
+    /** mutex/permits 每线程的获取次数。 */
+    @Param({"100000"})
+    int loops;
+
+    /** 门闩的轮数。 */
+    @Param({"2000"})
+    int rounds;
+
+    @Param({"2"})
+    int permits;
+
+    @Param({"64"})
+    int spins;
+
+    private long counter;
+
+    @Benchmark
+    public void acquire(Acquire params, Blackhole bh, OpCounters counters, LatencyHistogram latency) throws Exception {
+        counters.add(switch (params.primitive) {
+            case MUTEX -> mutex(params.fair, bh, latency);
+            case PERMITS -> permits(params.fair, bh, latency);
+        });
+    }
+
+    @Benchmark
+    public void latch(Latch params, OpCounters counters, LatencyHistogram latency) throws Exception {
+        counters.add(passLatch(params.latch == LatchKind.ONE_SHOT, latency));
+    }
+
+    private long mutex(boolean fair, Blackhole bh, LatencyHistogram latency) throws Exception {
+        counter = 0;
+        AqsSynchronizers.Mutex mutex = new AqsSynchronizers.Mutex(fair, spins);
+        ReentrantLock lock = new ReentrantLock(fair);
+        boolean lab = impl == Impl.LAB;
+
+        Workers.run(threads, "mutex", index -> {
+            for (int j = 0; j < loops; j++) {
+                long t0 = latency.begin();
+                if (lab) mutex.lock(); else lock.lock();
+                try {
+                    latency.end(t0);
+                    counter++;
+                } finally {
+                    if (lab) mutex.unlock(); else lock.unlock();
+                }
+            }
+        });
+
+        if (counter != (long) threads * loops) {
+            throw new IllegalStateException("lost updates: expected=" + (long) threads * loops + " actual=" + counter);
+        }
+        bh.consume(counter);
+        return (long) threads * loops;
+    }
+
+    private long permits(boolean fair, Blackhole bh, LatencyHistogram latency) throws Exception {
+        AqsSynchronizers.BoundedPermits bounded = new AqsSynchronizers.BoundedPermits(permits, fair, spins);
+        Semaphore semaphore = new Semaphore(permits, fair);
+        boolean lab = impl == Impl.LAB;
+        long[] sinks = new long[threads];
+
+        Workers.run(threads, "permits", index -> {
+            long x = index + 1;
+            for (int j = 0; j < loops; j++) {
+                long t0 = latency.begin();
+                if (lab) bounded.acquire(); else semaphore.acquire();
+                try {
+                    latency.end(t0);
+                    // 许可内允许多个线程同时进入，做一点线程私有的计算代替共享计数
+                    x ^= x << 13;
+                    x ^= x >>> 7;
+                    x ^= x << 17;
+                } finally {
+                    if (lab) bounded.release(); else semaphore.release();
+                }
+            }
+            sinks[index] = x;
+        });
+
+        for (long s : sinks) bh.consume(s);
+        return (long) threads * loops;
+    }
+
+    /**
+     * 线程 0 是协调者，其余 threads 个是等待者：协调者每轮 open，等本轮所有等待者通过后推进轮次；
+     * 等待者看到轮次推进后再去等下一轮。binary 在推进轮次前 close（lab）或换上新的门闩（jdk）。
+     */
+    private long passLatch(boolean oneShot, LatencyHistogram latency) throws Exception {
+        boolean lab = impl == Impl.LAB;
+        AqsSynchronizers.OneShotLatch[] oneShots = new AqsSynchronizers.OneShotLatch[rounds];
+        CountDownLatch[] countDowns = new CountDownLatch[rounds];
+        for (int r = 0; r < rounds; r++) {
+            if (lab) oneShots[r] = new AqsSynchronizers.OneShotLatch(spins);
+            else countDowns[r] = new CountDownLatch(1);
+        }
+        AqsSynchronizers.BinaryLatch binary = new AqsSynchronizers.BinaryLatch(false, spins);
+        AtomicInteger arrived = new AtomicInteger();
+        AtomicInteger round = new AtomicInteger();
+
+        Workers.run(threads + 1, "latch", index -> {
+            if (index == 0) {
+                for (int r = 0; r < rounds; r++) {
+                    long t0 = latency.begin();
+                    if (!lab) countDowns[r].countDown();
+                    else if (oneShot) oneShots[r].open();
+                    else binary.open();
+                    while (arrived.get() < threads * (r + 1)) Thread.yield();
+                    latency.end(t0);
+                    if (lab && !oneShot) binary.close();
+                    round.incrementAndGet();
+                }
+                return;
+            }
+            for (int r = 0; r < rounds; r++) {
+                while (round.get() != r) Thread.yield();
+                if (!lab) countDowns[r].await();
+                else if (oneShot) oneShots[r].await();
+                else binary.await();
+                arrived.incrementAndGet();
+            }
+        });
+
+        return (long) rounds * threads;
+    }
+}
@@ -0,0 +1,79 @@
+package labs.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 移植自 24-atomic/AtomicIntegerIncrementDemo 与 30-varhandle/VarHandleAtomicDemo：
+ * 多线程对同一个计数器做 CAS 自增，核心成本是缓存行在核之间来回传递。
+ *
+ * 配合 {@code --placement same-core,same-socket,cross-socket} 可以看到跨 socket 传递缓存行的代价。
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AtomicCounterBench {
+    public enum Impl { ATOMIC, VARHANDLE }
+
+    @Param({"2", "4"})
+    int threads;
+
+    @Param({"200000"})
+    int iterations;
+
+    @Param({"ATOMIC", "VARHANDLE"})
+    Impl impl;
+
+    static class Counter {
+        volatile int value;
+    }
+
+    private static final VarHandle VALUE;
+
+    static {
+        try {
+            VALUE = MethodHandles.lookup().findVarHandle(Counter.class, "value", int.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    @Benchmark
+    public void increment(Blackhole bh, OpCounters counters) throws Exception {
+        AtomicInteger atomic = new AtomicInteger();
+        Counter counter = new Counter();
+
+        Workers.run(threads, "cas", index -> {
+            if (impl == Impl.ATOMIC) {
+                for (int j = 0; j < iterations; j++) {
+                    atomic.incrementAndGet();
+                }
+            } else {
+                for (int j = 0; j < iterations; j++) {
+                    int prev;
+                    do {
+                        prev = (int) VALUE.getVolatile(counter);
+                    } while (!VALUE.compareAndSet(counter, prev, prev + 1));
+                }
+            }
+        });
+
+        int actual = impl == Impl.ATOMIC ? atomic.get() : counter.value;
+        if (actual != threads * iterations) {
+            throw new IllegalStateException("expected=" + threads * iterations + " actual=" + actual);
+        }
+        bh.consume(actual);
+        counters.add((long) threads * iterations);
+    }
+}
@@ -0,0 +1,88 @@
+package labs.benchmarks;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * 本地基准结果库：每个基准一个只追加的 TSV 文件（{@code <store>/<Benchmark>.tsv}）。
+ *
+ * 每行是一次运行里一个参数组合的汇总，带上 runId（运行时间戳）以及 JDK 版本、CPU 数、JVM 参数，
+ * 换 JDK 或 GC 参数重跑后，可以用 {@link BenchCompare} 找到之前的结果做对比。
+ */
+final class BaselineStore {
+    static final Path DEFAULT_DIR = Path.of("bench-baselines");
+
+    private final Path dir;
+
+    BaselineStore(Path dir) {
+        this.dir = dir;
+    }
+
+    /**
+     * 一条历史记录。{@link #envKey()} 用于挑选“相同环境”的基线。
+     */
+    record Entry(String runId, String jdk, String cpus, String jvmArgs, String benchmark, String params,
+                 int samples, double opsPerSec, double opsPerSecSd, long p50Nanos, long p99Nanos,
+                 long p999Nanos, double allocBytesPerOp) {
+        String envKey() {
+            return "jdk=" + jdk + " cpus=" + cpus + " jvmArgs=[" + jvmArgs + "]";
+        }
+
+        String caseKey() {
+            return benchmark + " " + params;
+        }
+    }
+
+    void append(Map<String, String> env, List<BenchResult> results) throws IOException {
+        Files.createDirectories(dir);
+        Map<String, List<String>> linesByBenchmark = new LinkedHashMap<>();
+        for (BenchResult r : results) {
+            String line = String.join("\t",
+                    clean(env.get("timestamp")), clean(env.get("jdk")), clean(env.get("cpus")),
+                    clean(env.get("jvmArgs")), clean(r.benchmark()), clean(ResultWriter.paramString(r.params())),
+                    String.valueOf(r.samples()),
+                    String.format(Locale.ROOT, "%.3f", r.opsPerSec()),
+                    String.format(Locale.ROOT, "%.3f", r.opsPerSecSd()),
+                    String.valueOf(r.p50Nanos()), String.valueOf(r.p99Nanos()), String.valueOf(r.p999Nanos()),
+                    String.format(Locale.ROOT, "%.3f", r.allocBytesPerOp()));
+            linesByBenchmark.computeIfAbsent(r.benchmark(), k -> new ArrayList<>()).add(line);
+        }
+        for (Map.Entry<String, List<String>> e : linesByBenchmark.entrySet()) {
+            Files.write(dir.resolve(e.getKey() + ".tsv"), e.getValue(), StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        }
+    }
+
+    List<Entry> load() throws IOException {
+        List<Entry> entries = new ArrayList<>();
+        if (!Files.isDirectory(dir)) return entries;
+        List<Path> files;
+        try (Stream<Path> s = Files.list(dir)) {
+            files = s.filter(p -> p.getFileName().toString().endsWith(".tsv")).sorted().toList();
+        }
+        for (Path file : files) {
+            for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                if (line.isBlank()) continue;
+                String[] f = line.split("\t", -1);
+                if (f.length < 13) throw new IllegalStateException("Malformed line in " + file + ": " + line);
+                entries.add(new Entry(f[0], f[1], f[2], f[3], f[4], f[5], Integer.parseInt(f[6]),
+                        Double.parseDouble(f[7]), Double.parseDouble(f[8]), Long.parseLong(f[9]),
+                        Long.parseLong(f[10]), Long.parseLong(f[11]), Double.parseDouble(f[12])));
+            }
+        }
+        return entries;
+    }
+
+    private static String clean(String s) {
+        return s == null ? "" : s.replace('\t', ' ').replace('\n', ' ');
+    }
+}
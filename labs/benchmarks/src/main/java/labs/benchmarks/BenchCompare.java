@@ -0,0 +1,205 @@
+package labs.benchmarks;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+
+/**
+ * 对比本地结果库（{@link BaselineStore}）里的两次运行，标出吞吐下降、尾延迟上升或每操作分配量上升超过阈值的用例。
+ *
+ * 运行示例（{@code ...} 即 {@code java -cp labs/benchmarks/target/benchmarks.jar labs.benchmarks.}）：
+ *   ... BenchRunner "Fairness|BlockingQueue|VirtualThreads" --save
+ *   ... BenchRunner "Fairness|BlockingQueue|VirtualThreads" --save --jvmArgs "-XX:+UseParallelGC"
+ *   ... BenchCompare --runs
+ *   ... BenchCompare --threshold 5 --latencyThreshold 20 --allocThreshold 10
+ *   ... BenchCompare --base same-env Fairness
+ *
+ * 默认用最新一次运行（head）里的每个用例，对比更早的运行里同一基准、同一参数组合的最近一条记录（base），
+ * 所以上一次运行跑的是别的基准也不影响；{@code --base same-env} 额外要求 JDK/CPU/JVM 参数相同，
+ * 给出 runId 时所有用例都对比那一次运行。
+ * 发现回退时退出码为 1；没有任何可对比的用例时退出码为 2，避免“什么都没比”被当成通过，便于放进脚本。
+ */
+public class BenchCompare {
+    public static void main(String[] args) throws Exception {
+        Path store = BaselineStore.DEFAULT_DIR;
+        String base = "previous";
+        String head = "latest";
+        double threshold = 5.0;
+        double latencyThreshold = 20.0;
+        double allocThreshold = 10.0;
+        boolean listRuns = false;
+        Pattern include = null;
+
+        for (int i = 0; i < args.length; i++) {
+            String a = args[i];
+            String v = (i + 1 < args.length) ? args[i + 1] : null;
+            switch (a) {
+                case "--store" -> {
+                    store = Path.of(requireValue(a, v));
+                    i++;
+                }
+                case "--base" -> {
+                    base = requireValue(a, v);
+                    i++;
+                }
+                case "--head" -> {
+                    head = requireValue(a, v);
+                    i++;
+                }
+                case "--threshold" -> {
+                    threshold = Double.parseDouble(requireValue(a, v));
+                    i++;
+                }
+                case "--latencyThreshold" -> {
+                    latencyThreshold = Double.parseDouble(requireValue(a, v));
+                    i++;
+                }
+                case "--allocThreshold" -> {
+                    allocThreshold = Double.parseDouble(requireValue(a, v));
+                    i++;
+                }
+                case "--runs" -> listRuns = true;
+                default -> {
+                    if (a.startsWith("--")) throw new IllegalArgumentException("Unknown option " + a);
+                    include = Pattern.compile(a);
+                }
+            }
+        }
+        if (threshold < 0) throw new IllegalArgumentException("--threshold must be >= 0");
+        if (latencyThreshold < 0) throw new IllegalArgumentException("--latencyThreshold must be >= 0");
+        if (allocThreshold < 0) throw new IllegalArgumentException("--allocThreshold must be >= 0");
+
+        List<BaselineStore.Entry> entries = new BaselineStore(store).load();
+        if (include != null) {
+            Pattern p = include;
+            entries = entries.stream().filter(e -> p.matcher(e.benchmark()).find()).toList();
+        }
+
+        // runId 是 ISO-8601 时间戳，字典序即时间序
+        TreeMap<String, String> runs = new TreeMap<>();
+        for (BaselineStore.Entry e : entries) runs.put(e.runId(), e.envKey());
+        if (listRuns) {
+            runs.forEach((id, env) -> System.out.println(id + " " + env));
+            return;
+        }
+        if (runs.isEmpty()) {
+            System.out.println("no runs in " + store.toAbsolutePath() + " (use BenchRunner --save)");
+            System.exit(2);
+        }
+
+        String headId = head.equals("latest") ? runs.lastKey() : requireRun(runs, head);
+        String fixedBase = base.equals("previous") || base.equals("same-env") ? null : requireRun(runs, base);
+
+        System.out.println("base " + (fixedBase != null ? fixedBase + " " + runs.get(fixedBase)
+                : "per case: latest earlier run of the same benchmark and params" + (base.equals("same-env")
+                ? " with the same env" : "")));
+        System.out.println("head " + headId + " " + runs.get(headId));
+        System.out.printf(Locale.ROOT, "threshold: throughput -%.1f%%, p99/p999 +%.1f%%, alloc/op +%.1f%%%n%n",
+                threshold, latencyThreshold, allocThreshold);
+
+        Map<String, BaselineStore.Entry> headCases = byCase(entries, headId);
+
+        System.out.printf(Locale.ROOT, "%-80s %-30s %14s %14s %9s %9s %9s %9s  %s%n",
+                "Case", "base run", "base(ops/s)", "head(ops/s)", "thrpt", "p99", "p999", "alloc", "verdict");
+        List<String> regressions = new ArrayList<>();
+        int compared = 0;
+        for (Map.Entry<String, BaselineStore.Entry> e : headCases.entrySet()) {
+            BaselineStore.Entry h = e.getValue();
+            BaselineStore.Entry b = fixedBase != null
+                    ? byCase(entries, fixedBase).get(e.getKey())
+                    : latestBefore(entries, h, base.equals("same-env"));
+            if (b == null) {
+                System.out.printf(Locale.ROOT, "%-80s %-30s %14s %14.1f %9s %9s %9s %9s  %s%n",
+                        e.getKey(), "-", "-", h.opsPerSec(), "-", "-", "-", "-", "new");
+                continue;
+            }
+            compared++;
+            double thrpt = percentChange(b.opsPerSec(), h.opsPerSec());
+            double p99 = percentChange(b.p99Nanos(), h.p99Nanos());
+            double p999 = percentChange(b.p999Nanos(), h.p999Nanos());
+            double alloc = percentChange(b.allocBytesPerOp(), h.allocBytesPerOp());
+
+            List<String> reasons = new ArrayList<>();
+            if (thrpt < -threshold) reasons.add("throughput");
+            if (p99 > latencyThreshold) reasons.add("p99");
+            if (p999 > latencyThreshold) reasons.add("p999");
+            // 每操作不足 1 字节的差异多半是运行器自身的分配，不算回退
+            if (alloc > allocThreshold && h.allocBytesPerOp() - b.allocBytesPerOp() >= 1.0) reasons.add("alloc");
+            String verdict = reasons.isEmpty() ? "ok" : "REGRESSION(" + String.join(",", reasons) + ")";
+            if (!reasons.isEmpty() && noise(b) > threshold) {
+                verdict += String.format(Locale.ROOT, " noisy(sd=%.1f%%)", noise(b));
+            }
+            if (!reasons.isEmpty()) regressions.add(e.getKey());
+
+            System.out.printf(Locale.ROOT, "%-80s %-30s %14.1f %14.1f %9s %9s %9s %9s  %s%n",
+                    e.getKey(), b.runId(), b.opsPerSec(), h.opsPerSec(), fmtPct(thrpt), fmtPct(p99), fmtPct(p999),
+                    fmtPct(alloc), verdict);
+        }
+        if (fixedBase != null) {
+            // 只有固定 base 时“head 里没有”才有意义；按用例找 base 时，别的基准本来就不在 head 里
+            for (Map.Entry<String, BaselineStore.Entry> e : byCase(entries, fixedBase).entrySet()) {
+                if (!headCases.containsKey(e.getKey())) {
+                    System.out.printf(Locale.ROOT, "%-80s %-30s %14.1f %14s %9s %9s %9s %9s  %s%n",
+                            e.getKey(), fixedBase, e.getValue().opsPerSec(), "-", "-", "-", "-", "-", "missing");
+                }
+            }
+        }
+
+        System.out.println();
+        System.out.println("regressions=" + regressions.size() + " compared=" + compared + " cases=" + headCases.size());
+        if (!regressions.isEmpty()) System.exit(1);
+        if (compared == 0) {
+            System.out.println("nothing to compare: no case in " + headId + " has a base run (" + base + ")");
+            System.exit(2);
+        }
+    }
+
+    /** head 之前同一用例（基准 + 参数，含 placement）的最近一条记录；sameEnv 时还要求环境相同。 */
+    private static BaselineStore.Entry latestBefore(List<BaselineStore.Entry> entries, BaselineStore.Entry head,
+                                                    boolean sameEnv) {
+        BaselineStore.Entry best = null;
+        for (BaselineStore.Entry e : entries) {
+            if (e.runId().compareTo(head.runId()) >= 0 || !e.caseKey().equals(head.caseKey())) continue;
+            if (sameEnv && !e.envKey().equals(head.envKey())) continue;
+            if (best == null || e.runId().compareTo(best.runId()) > 0) best = e;
+        }
+        return best;
+    }
+
+    private static Map<String, BaselineStore.Entry> byCase(List<BaselineStore.Entry> entries, String runId) {
+        Map<String, BaselineStore.Entry> cases = new LinkedHashMap<>();
+        for (BaselineStore.Entry e : entries) {
+            if (e.runId().equals(runId)) cases.put(e.caseKey(), e);
+        }
+        return cases;
+    }
+
+    /** 延迟字段为 -1（未记录）时返回 NaN，不参与判定。 */
+    private static double percentChange(double base, double head) {
+        if (base <= 0 || head < 0) return Double.NaN;
+        return (head - base) * 100.0 / base;
+    }
+
+    private static double noise(BaselineStore.Entry e) {
+        return e.opsPerSec() <= 0 ? 0.0 : e.opsPerSecSd() * 100.0 / e.opsPerSec();
+    }
+
+    private static String fmtPct(double pct) {
+        return Double.isNaN(pct) ? "n/a" : String.format(Locale.ROOT, "%+.1f%%", pct);
+    }
+
+    private static String requireRun(TreeMap<String, String> runs, String id) {
+        if (!runs.containsKey(id)) throw new IllegalArgumentException("Unknown run " + id + " (see --runs)");
+        return id;
+    }
+
+    private static String requireValue(String flag, String value) {
+        if (value == null || value.startsWith("--")) throw new IllegalArgumentException("Missing value for " + flag);
+        return value;
+    }
+}
@@ -0,0 +1,67 @@
+package labs.benchmarks;
+
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.util.Statistics;
+
+import java.util.Map;
+
+/**
+ * 一个“基准 + 参数组合”的汇总结果，所有 fork 的测量轮次合并后计算。
+ *
+ * 延迟分位为 -1 表示该基准没有记录逐操作延迟（或运行时用 {@code --latency false} 关闭）；
+ * 分配字节数为 -1 表示没有开 {@code -prof gc}；gcCount/gcTimeMs 是 JMH GC profiler 报告的测量轮次合计。
+ */
+record BenchResult(
+        String benchmark,
+        Map<String, String> params,
+        int samples,
+        double opsPerSec,
+        double opsPerSecSd,
+        long p50Nanos,
+        long p90Nanos,
+        long p99Nanos,
+        long p999Nanos,
+        long p9999Nanos,
+        long maxNanos,
+        long latencyCount,
+        double allocBytesPerSec,
+        double allocBytesPerOp,
+        long gcCount,
+        long gcTimeMs
+) {
+    /**
+     * 从 JMH 的 {@link RunResult} 汇总：吞吐优先取 {@link OpCounters} 的 {@code ops}（逻辑操作/秒），
+     * 没有时退回主分数（调用/秒）；延迟来自 {@link LabProfiler}，分配与 GC 来自 JMH 的 {@code -prof gc}。
+     */
+    static BenchResult of(String benchmark, Map<String, String> params, RunResult run) {
+        Map<String, Result> secondary = run.getSecondaryResults();
+        Result throughput = secondary.getOrDefault("ops", run.getPrimaryResult());
+        Statistics stats = throughput.getStatistics();
+        double opsPerSec = stats.getMean();
+        double sd = stats.getN() > 1 ? stats.getStandardDeviation() : 0.0;
+
+        // gc.alloc.rate 的单位是 MB/sec（2^20 字节）
+        double allocRate = score(secondary, "gc.alloc.rate", -1);
+        double allocPerSec = allocRate < 0 ? -1 : allocRate * 1_048_576.0;
+        double allocPerOp = allocPerSec < 0 || opsPerSec == 0 ? -1 : allocPerSec / opsPerSec;
+
+        return new BenchResult(benchmark, params, (int) stats.getN(), opsPerSec, sd,
+                nanos(secondary, LabProfiler.label(0.50)), nanos(secondary, LabProfiler.label(0.90)),
+                nanos(secondary, LabProfiler.label(0.99)), nanos(secondary, LabProfiler.label(0.999)),
+                nanos(secondary, LabProfiler.label(0.9999)), nanos(secondary, "lat.max"),
+                (long) score(secondary, "lat.count", 0), allocPerSec, allocPerOp,
+                (long) score(secondary, "gc.count", 0), (long) score(secondary, "gc.time", 0));
+    }
+
+    private static double score(Map<String, Result> secondary, String label, double missing) {
+        Result r = secondary.get(label);
+        return r == null ? missing : r.getScore();
+    }
+
+    /** profiler 以 us 输出，这里换回纳秒；没有记录时为 -1。 */
+    private static long nanos(Map<String, Result> secondary, String label) {
+        double us = score(secondary, label, -1);
+        return us < 0 ? -1 : Math.round(us * 1000);
+    }
+}
@@ -0,0 +1,323 @@
+package labs.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.BenchmarkList;
+import org.openjdk.jmh.runner.BenchmarkListEntry;
+import org.openjdk.jmh.runner.NoBenchmarksException;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.format.OutputFormatFactory;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+import org.openjdk.jmh.runner.options.VerboseMode;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * 基准运行器：在 JMH 的 Runner API 外面加一层，补上本仓库需要而 JMH 命令行没有的部分。
+ *
+ * 预热、fork、Blackhole、参数扫描都交给 JMH；这里负责：
+ * - 总是挂上 {@link LabProfiler}，输出逐操作延迟分位（{@code --histogram} 打印完整分布）；
+ * - {@code -prof gc} 同时打开 JMH 的 GC profiler 与按工作线程的分配统计；
+ * - {@code --placement} / {@code --cpus} 用 taskset 把整个 fork 绑到指定 CPU 上；
+ * - 把结果汇总成 {@link BenchResult}（ops/s 取 {@link OpCounters} 的逻辑操作数），
+ *   用 {@code -rf json|csv -rff file} 写成机器可读结果，或 {@code --save} 追加到 {@link BaselineStore}。
+ *
+ * 预热/测量轮次与 fork 数不指定时沿用各基准类上的注解（2 轮预热、5 轮测量、1 个 fork，每轮 1 秒）。
+ *
+ * 运行示例（仓库根目录先 {@code mvn -pl labs/benchmarks -am package}，{@code ...} 即 {@code java -cp labs/benchmarks/target/benchmarks.jar}）：
+ *   ... labs.benchmarks.BenchRunner -l
+ *   ... labs.benchmarks.BenchRunner ReentrantLock -p threads=1,4,8
+ *   ... labs.benchmarks.BenchRunner -wi 3 -i 5 -f 2 BlockingQueue -p capacity=16,1024
+ *   ... labs.benchmarks.BenchRunner ConcurrencyBenefits -p mode=CPU,IO -p threads=2,8 -p executor=FIXED,VIRTUAL -rf json -rff out.json
+ *   ... labs.benchmarks.BenchRunner BlockingQueue --save      # 追加到 bench-baselines/，再用 BenchCompare 对比
+ *   ... labs.benchmarks.BenchRunner Queue -prof gc -p boxed=true,false
+ *   ... labs.benchmarks.BenchRunner AtomicCounter --placement same-core,same-socket,cross-socket
+ */
+public class BenchRunner {
+    public static void main(String[] args) throws Exception {
+        Options options = Options.fromArgs(args);
+        if (options.list) {
+            list(options);
+            return;
+        }
+
+        List<Placement> placements = placements(options);
+        List<BenchResult> results = new ArrayList<>();
+        for (Placement placement : placements) {
+            List<RunResult> runs;
+            try {
+                runs = new ArrayList<>(new Runner(jmhOptions(options, placement)).run());
+            } catch (NoBenchmarksException e) {
+                System.out.println("no benchmark matches " + options.include);
+                return;
+            }
+            for (RunResult run : runs) {
+                Map<String, String> labeled = new LinkedHashMap<>();
+                for (String key : run.getParams().getParamsKeys()) labeled.put(key, run.getParams().getParam(key));
+                if (placement.cpus() != null) labeled.put("placement", placement.name());
+                String id = shortName(run.getParams().getBenchmark());
+                if (options.histogram) printDistribution(id, labeled, run);
+                results.add(BenchResult.of(id, labeled, run));
+            }
+        }
+
+        System.out.println();
+        ResultWriter.writeText(System.out, results);
+        Map<String, String> env = ResultWriter.environment(options.jvmArgs);
+        env.put("coIntervalNanos", String.valueOf(options.coIntervalNanos));
+        if (options.resultFile != null) {
+            ResultWriter.write(options.resultFormat, options.resultFile, env, results);
+            System.out.println("results written to " + options.resultFile.toAbsolutePath());
+        }
+        if (options.save) {
+            new BaselineStore(options.store).append(env, results);
+            System.out.println("run " + env.get("timestamp") + " saved to " + options.store.toAbsolutePath());
+        }
+    }
+
+    private static org.openjdk.jmh.runner.options.Options jmhOptions(Options options, Placement placement)
+            throws IOException {
+        ChainedOptionsBuilder builder = new OptionsBuilder()
+                .include(options.include == null ? ".*" : options.include)
+                .shouldFailOnError(true)
+                .addProfiler(LabProfiler.class, "latency=" + options.latency
+                        + ";coInterval=" + options.coIntervalNanos
+                        + ";histogram=" + options.histogram
+                        + ";threadAlloc=" + options.profGc);
+        if (options.profGc) builder.addProfiler(GCProfiler.class);
+        if (options.warmup != null) builder.warmupIterations(options.warmup);
+        if (options.iterations != null) builder.measurementIterations(options.iterations);
+        if (options.forks != null) builder.forks(options.forks);
+        if (options.warmupTime != null) builder.warmupTime(options.warmupTime);
+        if (options.measurementTime != null) builder.measurementTime(options.measurementTime);
+        if (!options.jvmArgs.isEmpty()) builder.jvmArgsAppend(options.jvmArgs.toArray(String[]::new));
+        options.overrides.forEach((name, values) -> builder.param(name, values.toArray(String[]::new)));
+        if (placement.cpus() != null) builder.jvm(tasksetLauncher(placement).toString());
+        return builder.build();
+    }
+
+    /**
+     * JMH 只接受一个 JVM 可执行文件路径，这里生成一个经 taskset 启动当前 java 的小脚本交给它，
+     * 整个子 JVM（含 JIT、GC 线程）都被限制在这组 CPU 上。
+     */
+    private static Path tasksetLauncher(Placement placement) throws IOException {
+        String java = ProcessHandle.current().info().command().orElse("java");
+        String cpus = placement.cpus().stream().map(String::valueOf).collect(Collectors.joining(","));
+        Path script = Files.createTempFile("bench-taskset-", ".sh");
+        script.toFile().deleteOnExit();
+        Files.writeString(script, "#!/bin/sh\nexec taskset -c " + cpus + " '" + java + "' \"$@\"\n");
+        Files.setPosixFilePermissions(script, PosixFilePermissions.fromString("rwx------"));
+        return script;
+    }
+
+    /**
+     * 把 {@code --placement} / {@code --cpus} 解析成要跑的 CPU 集合；都没给时返回一个不绑核的占位。
+     * 拓扑满足不了的放置模式（单 socket 机器上的 cross-socket、未开 SMT 时的 same-core）直接跳过并提示。
+     */
+    private static List<Placement> placements(Options options) {
+        if (options.placements.isEmpty() && options.cpus.isEmpty()) return List.of(new Placement("none", null));
+        if (options.forks != null && options.forks == 0) {
+            throw new IllegalArgumentException("--placement/--cpus need -f >= 1 (applied to the fork)");
+        }
+        if (!new File("/usr/bin/taskset").canExecute() && !new File("/bin/taskset").canExecute()) {
+            throw new IllegalStateException("--placement/--cpus need taskset (util-linux)");
+        }
+
+        List<Placement> result = new ArrayList<>();
+        if (!options.cpus.isEmpty()) {
+            result.add(new Placement("cpus" + options.cpus.toString().replace(" ", ""), options.cpus));
+        }
+        if (!options.placements.isEmpty()) {
+            CpuTopology topology = CpuTopology.detect();
+            if (!topology.available()) throw new IllegalStateException("CPU topology not available (no sysfs)");
+            System.out.print(topology.describe());
+            for (String name : options.placements) {
+                List<Integer> cpus = topology.select(name, options.placementCpus);
+                if (cpus.isEmpty()) {
+                    System.out.println("skip placement " + name + ": topology cannot provide "
+                            + options.placementCpus + " cpus");
+                } else {
+                    result.add(new Placement(name, cpus));
+                }
+            }
+        }
+        result.forEach(p -> System.out.println("placement " + p.name() + " -> cpus " + p.cpus()));
+        return result;
+    }
+
+    /** {@code --histogram}：按 {@link LabProfiler} 输出的各分位打印完整分布（类似 HdrHistogram 的 outputPercentileDistribution）。 */
+    private static void printDistribution(String id, Map<String, String> params, RunResult run) {
+        Map<String, Result> secondary = run.getSecondaryResults();
+        Result count = secondary.get("lat.count");
+        if (count == null) return;
+        System.out.println("# " + id + " " + params);
+        System.out.printf(Locale.ROOT, "    %10s %14s%n", "percentile", "latency(us)");
+        for (double q : new double[]{0.0, 0.25, 0.50, 0.75, 0.90, 0.95, 0.99, 0.999, 0.9999, 0.99999}) {
+            Result r = secondary.get(LabProfiler.label(q));
+            if (r != null) System.out.printf(Locale.ROOT, "    %10.3f %14.3f%n", q * 100, r.getScore());
+        }
+        System.out.printf(Locale.ROOT, "    %10s %14.3f%n", "max", secondary.get("lat.max").getScore());
+        System.out.printf(Locale.ROOT, "    count=%.0f/iteration%n", count.getScore());
+    }
+
+    /** {@code -l}：列出匹配的基准与（覆盖后的）参数取值。 */
+    private static void list(Options options) {
+        List<String> includes = List.of(options.include == null ? ".*" : options.include);
+        for (BenchmarkListEntry entry : BenchmarkList.defaultList().find(
+                OutputFormatFactory.createFormatInstance(System.out, VerboseMode.SILENT), includes, List.of())) {
+            Map<String, List<String>> values = new TreeMap<>();
+            entry.getParams().orElse(Map.of()).forEach((name, defaults) ->
+                    values.put(name, options.overrides.getOrDefault(name, Arrays.asList(defaults))));
+            System.out.println(shortName(entry.getUsername()) + " " + values);
+        }
+    }
+
+    /** {@code labs.benchmarks.XBench.method} → {@code XBench.method}，与基线库里的记录保持一致。 */
+    private static String shortName(String benchmark) {
+        int method = benchmark.lastIndexOf('.');
+        return benchmark.substring(benchmark.lastIndexOf('.', method - 1) + 1);
+    }
+
+    /** {@code cpus == null} 表示不绑核。 */
+    private record Placement(String name, List<Integer> cpus) {
+    }
+
+    static final class Options {
+        Integer warmup;
+        Integer iterations;
+        Integer forks;
+        TimeValue warmupTime;
+        TimeValue measurementTime;
+        boolean list;
+        boolean latency = true;
+        long coIntervalNanos;
+        boolean histogram;
+        boolean profGc;
+        ResultWriter.Format resultFormat = ResultWriter.Format.TEXT;
+        Path resultFile;
+        boolean save;
+        Path store = BaselineStore.DEFAULT_DIR;
+        String include;
+        List<String> jvmArgs = new ArrayList<>();
+        List<String> placements = new ArrayList<>();
+        List<Integer> cpus = new ArrayList<>();
+        int placementCpus = 2;
+        Map<String, List<String>> overrides = new LinkedHashMap<>();
+
+        static Options fromArgs(String[] args) {
+            Options o = new Options();
+            for (int i = 0; i < args.length; i++) {
+                String a = args[i];
+                String v = (i + 1 < args.length) ? args[i + 1] : null;
+                switch (a) {
+                    case "-wi" -> {
+                        o.warmup = Integer.parseInt(requireValue(a, v));
+                        i++;
+                    }
+                    case "-i" -> {
+                        o.iterations = Integer.parseInt(requireValue(a, v));
+                        i++;
+                    }
+                    case "-f" -> {
+                        o.forks = Integer.parseInt(requireValue(a, v));
+                        i++;
+                    }
+                    case "-w" -> {
+                        o.warmupTime = TimeValue.fromString(requireValue(a, v));
+                        i++;
+                    }
+                    case "-r" -> {
+                        o.measurementTime = TimeValue.fromString(requireValue(a, v));
+                        i++;
+                    }
+                    case "-p" -> {
+                        String spec = requireValue(a, v);
+                        int eq = spec.indexOf('=');
+                        if (eq <= 0) throw new IllegalArgumentException("Expected -p name=v1,v2 but got " + spec);
+                        o.overrides.put(spec.substring(0, eq), List.of(spec.substring(eq + 1).split(",")));
+                        i++;
+                    }
+                    case "--jvmArgs" -> {
+                        o.jvmArgs = List.of(requireValue(a, v).trim().split("\\s+"));
+                        i++;
+                    }
+                    case "--latency" -> {
+                        o.latency = Boolean.parseBoolean(requireValue(a, v));
+                        i++;
+                    }
+                    case "-rf" -> {
+                        o.resultFormat = ResultWriter.Format.valueOf(requireValue(a, v).toUpperCase(Locale.ROOT));
+                        i++;
+                    }
+                    case "-rff" -> {
+                        o.resultFile = Path.of(requireValue(a, v));
+                        i++;
+                    }
+                    case "--store" -> {
+                        o.store = Path.of(requireValue(a, v));
+                        i++;
+                    }
+                    case "--coInterval" -> {
+                        o.coIntervalNanos = Long.parseLong(requireValue(a, v).replace("_", ""));
+                        i++;
+                    }
+                    case "--placement" -> {
+                        o.placements = List.of(requireValue(a, v).split(","));
+                        i++;
+                    }
+                    case "--cpus" -> {
+                        o.cpus = Arrays.stream(requireValue(a, v).split(",")).map(String::trim)
+                                .map(Integer::valueOf).toList();
+                        i++;
+                    }
+                    case "--placementCpus" -> {
+                        o.placementCpus = Integer.parseInt(requireValue(a, v));
+                        i++;
+                    }
+                    case "--histogram" -> o.histogram = true;
+                    case "-prof" -> {
+                        String profiler = requireValue(a, v);
+                        if (!profiler.equals("gc")) throw new IllegalArgumentException("Unknown profiler " + profiler);
+                        o.profGc = true;
+                        i++;
+                    }
+                    case "--save" -> o.save = true;
+                    case "-l" -> o.list = true;
+                    default -> {
+                        if (a.startsWith("-")) throw new IllegalArgumentException("Unknown option " + a);
+                        o.include = a;
+                    }
+                }
+            }
+            if (o.warmup != null && o.warmup < 0) throw new IllegalArgumentException("-wi must be >= 0");
+            if (o.iterations != null && o.iterations <= 0) throw new IllegalArgumentException("-i must be > 0");
+            if (o.forks != null && o.forks < 0) throw new IllegalArgumentException("-f must be >= 0");
+            if (o.coIntervalNanos < 0) throw new IllegalArgumentException("--coInterval must be >= 0");
+            if (o.placementCpus <= 0) throw new IllegalArgumentException("--placementCpus must be > 0");
+            if (o.resultFile == null && o.resultFormat != ResultWriter.Format.TEXT) {
+                o.resultFile = Path.of("bench-result." + o.resultFormat.name().toLowerCase(Locale.ROOT));
+            }
+            return o;
+        }
+
+        private static String requireValue(String flag, String value) {
+            if (value == null) throw new IllegalArgumentException("Missing value for " + flag);
+            return value;
+        }
+    }
+}
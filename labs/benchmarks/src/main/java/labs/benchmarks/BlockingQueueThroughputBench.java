@@ -0,0 +1,80 @@
+package labs.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * 移植自 20-arrayblockingqueue-linkedblockingqueue/BlockingQueueThroughputCompareDemo：
+ * ArrayBlockingQueue 与 LinkedBlockingQueue 在相同生产者/消费者负载下的 put/take 吞吐。
+ *
+ * boxed=true 与原 demo 一致（put(j) 对超出 Integer 缓存的值装箱分配）；
+ * boxed=false 只放 -128~127 的缓存值，配合 {@code -prof gc} 可以把装箱分配与队列节点分配区分开。
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BlockingQueueThroughputBench {
+    public enum Kind { ARRAY, LINKED }
+
+    @Param({"ARRAY", "LINKED"})
+    Kind queue;
+
+    @Param({"200000"})
+    int totalOps;
+
+    @Param({"2"})
+    int producers;
+
+    @Param({"2"})
+    int consumers;
+
+    @Param({"1024"})
+    int capacity;
+
+    @Param({"true"})
+    boolean boxed;
+
+    @Benchmark
+    public void putTake(Blackhole bh, OpCounters counters, LatencyHistogram latency) throws Exception {
+        BlockingQueue<Integer> q = queue == Kind.ARRAY
+                ? new ArrayBlockingQueue<>(capacity)
+                : new LinkedBlockingQueue<>(capacity);
+        long[] checksums = new long[consumers];
+
+        Workers.run(producers + consumers, "queue", index -> {
+            if (index < producers) {
+                int count = Workers.workCount(totalOps, producers, index);
+                int mask = boxed ? -1 : 127;
+                for (int j = 0; j < count; j++) {
+                    long t0 = latency.begin();
+                    q.put(j & mask);
+                    latency.end(t0);
+                }
+            } else {
+                int c = index - producers;
+                int count = Workers.workCount(totalOps, consumers, c);
+                long sum = 0;
+                for (int j = 0; j < count; j++) {
+                    long t0 = latency.begin();
+                    sum += q.take();
+                    latency.end(t0);
+                }
+                checksums[c] = sum;
+            }
+        });
+
+        for (long sum : checksums) bh.consume(sum);
+        counters.add(totalOps);
+    }
+}
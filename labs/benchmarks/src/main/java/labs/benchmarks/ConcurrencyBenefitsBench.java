@@ -0,0 +1,112 @@
+package labs.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * 移植自 01-concurrency-pros-cons/ConcurrencyBenefits：CPU/IO/MIX 任务在顺序执行、固定线程池、虚拟线程下的吞吐。
+ *
+ * 延迟记录的是“批次开始到该任务完成”的响应时间（含排队），比单看任务自身耗时更贴近线程池选型。
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConcurrencyBenefitsBench {
+    public enum Mode { CPU, IO, MIX }
+
+    public enum ExecutorKind { FIXED, VIRTUAL }
+
+    @Param({"CPU", "IO"})
+    Mode mode;
+
+    @Param({"200"})
+    int tasks;
+
+    @Param({"8"})
+    int threads;
+
+    @Param({"FIXED", "VIRTUAL"})
+    ExecutorKind executor;
+
+    @Param({"400000"})
+    long work;
+
+    @Param({"20"})
+    int sleepMs;
+
+    @Benchmark
+    public void concurrent(Blackhole bh, OpCounters counters, LatencyHistogram latency) throws Exception {
+        ExecutorService pool = executor == ExecutorKind.VIRTUAL
+                ? Executors.newVirtualThreadPerTaskExecutor()
+                : Executors.newFixedThreadPool(threads);
+        try (pool) {
+            List<Callable<Long>> callables = new ArrayList<>(tasks);
+            long[] batchStart = new long[1];
+            for (int i = 0; i < tasks; i++) {
+                int id = i;
+                callables.add(() -> {
+                    long r = doWork(id);
+                    latency.record(System.nanoTime() - batchStart[0]);
+                    return r;
+                });
+            }
+
+            batchStart[0] = System.nanoTime();
+            long checksum = 0;
+            for (Future<Long> future : pool.invokeAll(callables)) {
+                checksum += future.get();
+            }
+            bh.consume(checksum);
+            counters.add(tasks);
+        }
+    }
+
+    @Benchmark
+    public void sequential(Blackhole bh, OpCounters counters, LatencyHistogram latency) throws Exception {
+        long start = System.nanoTime();
+        long checksum = 0;
+        for (int i = 0; i < tasks; i++) {
+            checksum += doWork(i);
+            latency.record(System.nanoTime() - start);
+        }
+        bh.consume(checksum);
+        counters.add(tasks);
+    }
+
+    private long doWork(int id) throws InterruptedException {
+        return switch (mode) {
+            case CPU -> cpuWork(work, id);
+            case IO -> ioWork(sleepMs, id);
+            case MIX -> cpuWork(work / 5, id) + ioWork(sleepMs, id);
+        };
+    }
+
+    private static long ioWork(int sleepMs, int id) throws InterruptedException {
+        if (sleepMs > 0) Thread.sleep(sleepMs);
+        return id;
+    }
+
+    private static long cpuWork(long iterations, int seed) {
+        long x = 0x9E3779B97F4A7C15L ^ seed;
+        for (long i = 0; i < iterations; i++) {
+            x ^= (x << 13);
+            x ^= (x >>> 7);
+            x ^= (x << 17);
+        }
+        return x;
+    }
+}
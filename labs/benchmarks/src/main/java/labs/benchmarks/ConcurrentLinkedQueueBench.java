@@ -0,0 +1,66 @@
+package labs.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 移植自 15-concurrentlinkedqueue/ConcurrentLinkedQueueConcurrentDemo：无锁队列 offer/poll 的吞吐。
+ *
+ * boxed=false 只放 Integer 缓存内的值，用来把装箱分配与每次 offer 的节点分配区分开（见 {@code -prof gc}）。
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConcurrentLinkedQueueBench {
+    @Param({"4"})
+    int producers;
+
+    @Param({"100000"})
+    int perProducer;
+
+    @Param({"true"})
+    boolean boxed;
+
+    @Benchmark
+    public void offerPoll(Blackhole bh, OpCounters counters, LatencyHistogram latency) throws Exception {
+        int consumers = Math.max(2, producers / 2);
+        int expected = producers * perProducer;
+        ConcurrentLinkedQueue<Integer> queue = new ConcurrentLinkedQueue<>();
+        AtomicInteger consumed = new AtomicInteger();
+
+        Workers.run(producers + consumers, "clq", index -> {
+            if (index < producers) {
+                int mask = boxed ? -1 : 127;
+                for (int j = 0; j < perProducer; j++) {
+                    long t0 = latency.begin();
+                    queue.offer(j & mask);
+                    latency.end(t0);
+                }
+            } else {
+                while (consumed.get() < expected) {
+                    long t0 = latency.begin();
+                    Integer v = queue.poll();
+                    latency.end(t0);
+                    if (v != null) {
+                        consumed.incrementAndGet();
+                    } else {
+                        Thread.yield();
+                    }
+                }
+            }
+        });
+
+        bh.consume(consumed.get());
+        counters.add(expected);
+    }
+}
@@ -0,0 +1,206 @@
+package labs.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 移植自 06-final/ConfigStore 与 FinalConfigReloadDemo：读多写少的配置，三种保护方式的吞吐与延迟。
+ *
+ * - snapshot：final 字段的不可变快照，{@code VarHandle.getAcquire} 读、{@code setRelease} 发布（同 ConfigStore）；
+ * - rwlock：可变配置对象，读方持 {@link ReentrantReadWriteLock} 读锁读字段，重载持写锁原地修改；
+ * - volatile_map：{@code volatile HashMap<String, Object>}，重载时复制整张表、修改后替换引用，读方按 key 查表。
+ *
+ * 每次操作以 readPercent 的概率读一次配置（取 size/enabled/timeoutMillis 三个字段并校验一致性），否则重载一次
+ * （版本号 +1）。读到不一致的配置会直接抛异常，三种方式都必须是 0。
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConfigStoreBench {
+    public enum Store { SNAPSHOT, RWLOCK, VOLATILE_MAP }
+
+    @Param({"SNAPSHOT", "RWLOCK", "VOLATILE_MAP"})
+    Store store;
+
+    @Param({"1", "4"})
+    int threads;
+
+    @Param({"2000000"})
+    int ops;
+
+    @Param({"99"})
+    int readPercent;
+
+    /** 版本 v 的配置满足 size == 2v、enabled == (v 为偶数)、timeoutMillis == v + 1000。 */
+    private static final class Snapshot {
+        final long version;
+        final long size;
+        final boolean enabled;
+        final long timeoutMillis;
+
+        Snapshot(long version) {
+            this.version = version;
+            this.size = 2 * version;
+            this.enabled = version % 2 == 0;
+            this.timeoutMillis = version + 1000;
+        }
+    }
+
+    private static final class MutableConfig {
+        long version;
+        long size;
+        boolean enabled;
+        long timeoutMillis;
+    }
+
+    private static final VarHandle CURRENT;
+
+    static {
+        try {
+            CURRENT = MethodHandles.lookup().findVarHandle(ConfigStoreBench.class, "current", Snapshot.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    @SuppressWarnings("unused") // 只通过 CURRENT 访问
+    private Snapshot current;
+    private final Object snapshotWriteLock = new Object();
+
+    private final ReentrantReadWriteLock rwLock = new ReentrantReadWriteLock();
+    private final MutableConfig mutable = new MutableConfig();
+
+    private volatile HashMap<String, Object> map;
+
+    @Benchmark
+    public void readMostly(Blackhole bh, OpCounters counters, LatencyHistogram latency) throws Exception {
+        if (readPercent < 0 || readPercent > 100) throw new IllegalArgumentException("readPercent must be 0..100");
+        CURRENT.setRelease(this, new Snapshot(1));
+        apply(mutable, 1);
+        map = toMap(1);
+
+        long[] sums = new long[threads];
+        Workers.run(threads, "config", index -> {
+            int perThread = Workers.workCount(ops, threads, index);
+            int seed = 0x9E3779B9 * (index + 1);
+            long sum = 0;
+            for (int i = 0; i < perThread; i++) {
+                seed ^= seed << 13;
+                seed ^= seed >>> 17;
+                seed ^= seed << 5;
+                boolean read = Integer.remainderUnsigned(seed, 100) < readPercent;
+                long t0 = latency.begin();
+                sum += read ? read() : reload();
+                latency.end(t0);
+            }
+            sums[index] = sum;
+        });
+
+        long total = 0;
+        for (long s : sums) total += s;
+        bh.consume(total);
+        counters.add(ops);
+    }
+
+    private long read() {
+        long version;
+        long size;
+        boolean enabled;
+        long timeout;
+        switch (store) {
+            case SNAPSHOT -> {
+                Snapshot s = (Snapshot) CURRENT.getAcquire(this);
+                version = s.version;
+                size = s.size;
+                enabled = s.enabled;
+                timeout = s.timeoutMillis;
+            }
+            case RWLOCK -> {
+                ReentrantReadWriteLock.ReadLock lock = rwLock.readLock();
+                lock.lock();
+                try {
+                    version = mutable.version;
+                    size = mutable.size;
+                    enabled = mutable.enabled;
+                    timeout = mutable.timeoutMillis;
+                } finally {
+                    lock.unlock();
+                }
+            }
+            case VOLATILE_MAP -> {
+                HashMap<String, Object> m = map;
+                version = (Long) m.get("version");
+                size = (Long) m.get("size");
+                enabled = (Boolean) m.get("enabled");
+                timeout = (Long) m.get("timeoutMillis");
+            }
+            default -> throw new IllegalStateException();
+        }
+        if (size != 2 * version || enabled != (version % 2 == 0) || timeout != version + 1000) {
+            throw new IllegalStateException(store + " returned an inconsistent config at version " + version);
+        }
+        return size;
+    }
+
+    private long reload() {
+        switch (store) {
+            case SNAPSHOT -> {
+                synchronized (snapshotWriteLock) {
+                    Snapshot next = new Snapshot(((Snapshot) CURRENT.getAcquire(this)).version + 1);
+                    CURRENT.setRelease(this, next);
+                    return next.version;
+                }
+            }
+            case RWLOCK -> {
+                ReentrantReadWriteLock.WriteLock lock = rwLock.writeLock();
+                lock.lock();
+                try {
+                    apply(mutable, mutable.version + 1);
+                    return mutable.version;
+                } finally {
+                    lock.unlock();
+                }
+            }
+            case VOLATILE_MAP -> {
+                // 写方之间也必须串行化，否则两个并发的“复制-修改-替换”会丢掉其中一个
+                synchronized (this) {
+                    long next = (Long) map.get("version") + 1;
+                    HashMap<String, Object> copy = new HashMap<>(map);
+                    copy.putAll(toMap(next));
+                    map = copy;
+                    return next;
+                }
+            }
+            default -> throw new IllegalStateException();
+        }
+    }
+
+    private static void apply(MutableConfig config, long version) {
+        config.version = version;
+        config.size = 2 * version;
+        config.enabled = version % 2 == 0;
+        config.timeoutMillis = version + 1000;
+    }
+
+    private static HashMap<String, Object> toMap(long version) {
+        HashMap<String, Object> m = new HashMap<>();
+        m.put("version", version);
+        m.put("size", 2 * version);
+        m.put("enabled", version % 2 == 0);
+        m.put("timeoutMillis", version + 1000);
+        return m;
+    }
+}
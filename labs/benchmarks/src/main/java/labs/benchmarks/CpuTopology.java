@@ -0,0 +1,134 @@
+package labs.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+/**
+ * 从 Linux sysfs 读取 CPU 拓扑（socket / core / 逻辑 CPU），为放置模式挑选 CPU 集合。
+ *
+ * 放置模式：
+ * - same-core：同一物理核上的超线程兄弟（需要开启 SMT）；
+ * - same-socket：同一 socket 上不同物理核；
+ * - cross-socket：在各 socket 之间轮流取不同物理核（至少 2 个 socket）。
+ *
+ * 这里把 physical_package_id 当作 NUMA 节点的近似；多数双路服务器上两者一致。
+ */
+final class CpuTopology {
+    private static final Path SYSFS = Path.of("/sys/devices/system/cpu");
+
+    record Cpu(int id, int core, int socket) {
+    }
+
+    private final List<Cpu> cpus;
+
+    private CpuTopology(List<Cpu> cpus) {
+        this.cpus = cpus;
+    }
+
+    static CpuTopology detect() {
+        List<Cpu> cpus = new ArrayList<>();
+        if (Files.isDirectory(SYSFS)) {
+            try (Stream<Path> s = Files.list(SYSFS)) {
+                for (Path dir : s.filter(p -> p.getFileName().toString().matches("cpu\\d+")).toList()) {
+                    Path topology = dir.resolve("topology");
+                    if (!Files.isDirectory(topology)) continue;
+                    int id = Integer.parseInt(dir.getFileName().toString().substring(3));
+                    cpus.add(new Cpu(id, readInt(topology.resolve("core_id")),
+                            readInt(topology.resolve("physical_package_id"))));
+                }
+            } catch (IOException e) {
+                throw new IllegalStateException("Cannot read " + SYSFS, e);
+            }
+        }
+        cpus.sort(Comparator.comparingInt(Cpu::id));
+        return new CpuTopology(cpus);
+    }
+
+    boolean available() {
+        return !cpus.isEmpty();
+    }
+
+    /**
+     * @return 选中的逻辑 CPU id；拓扑无法满足该放置模式时返回空列表
+     */
+    List<Integer> select(String placement, int count) {
+        Map<Integer, Map<Integer, List<Integer>>> bySocket = new TreeMap<>();
+        for (Cpu cpu : cpus) {
+            bySocket.computeIfAbsent(cpu.socket(), k -> new TreeMap<>())
+                    .computeIfAbsent(cpu.core(), k -> new ArrayList<>()).add(cpu.id());
+        }
+
+        List<Integer> chosen = new ArrayList<>();
+        switch (placement) {
+            case "same-core" -> {
+                for (Map<Integer, List<Integer>> cores : bySocket.values()) {
+                    for (List<Integer> siblings : cores.values()) {
+                        if (siblings.size() >= Math.min(2, count)) {
+                            return siblings.subList(0, Math.min(count, siblings.size()));
+                        }
+                    }
+                }
+            }
+            case "same-socket" -> {
+                Map<Integer, List<Integer>> cores = bySocket.values().stream()
+                        .max(Comparator.comparingInt(Map::size)).orElse(Map.of());
+                for (List<Integer> siblings : cores.values()) {
+                    if (chosen.size() == count) break;
+                    chosen.add(siblings.get(0));
+                }
+                if (chosen.size() == count) return chosen;
+            }
+            case "cross-socket" -> {
+                if (bySocket.size() < 2) return List.of();
+                List<List<Integer>> perSocket = new ArrayList<>();
+                for (Map<Integer, List<Integer>> cores : bySocket.values()) {
+                    List<Integer> firstThreads = new ArrayList<>();
+                    for (List<Integer> siblings : cores.values()) firstThreads.add(siblings.get(0));
+                    perSocket.add(firstThreads);
+                }
+                for (int round = 0; chosen.size() < count; round++) {
+                    boolean progressed = false;
+                    for (List<Integer> socket : perSocket) {
+                        if (round < socket.size() && chosen.size() < count) {
+                            chosen.add(socket.get(round));
+                            progressed = true;
+                        }
+                    }
+                    if (!progressed) break;
+                }
+                if (chosen.size() == count) return chosen;
+            }
+            default -> throw new IllegalArgumentException("Unknown placement " + placement
+                    + " (expected same-core, same-socket or cross-socket)");
+        }
+        return List.of();
+    }
+
+    /** 形如 {@code socket0: core0=[0,8] core1=[1,9]}，用于在输出里说明运行时的拓扑。 */
+    String describe() {
+        Map<Integer, Map<Integer, List<Integer>>> bySocket = new LinkedHashMap<>();
+        for (Cpu cpu : cpus) {
+            bySocket.computeIfAbsent(cpu.socket(), k -> new TreeMap<>())
+                    .computeIfAbsent(cpu.core(), k -> new ArrayList<>()).add(cpu.id());
+        }
+        StringBuilder sb = new StringBuilder();
+        bySocket.forEach((socket, cores) -> {
+            sb.append("socket").append(socket).append(':');
+            cores.forEach((core, ids) -> sb.append(" core").append(core).append('=').append(ids));
+            sb.append(System.lineSeparator());
+        });
+        return sb.toString();
+    }
+
+    private static int readInt(Path file) throws IOException {
+        return Integer.parseInt(Files.readString(file).trim());
+    }
+}
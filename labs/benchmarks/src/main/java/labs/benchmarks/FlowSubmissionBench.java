@@ -0,0 +1,103 @@
+package labs.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 延伸自 29-flow/FlowBackpressureDemo：SubmissionPublisher 从 submit 到 onNext 的投递吞吐与延迟。
+ *
+ * requestN=1 时每条消息都要一次 request 往返（与 FlowBackpressureDemo 相同）；取更大值时按批补充需求。
+ * 缓冲区满时 submit 会阻塞，这段背压等待也计入延迟。
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FlowSubmissionBench {
+    @Param({"200000"})
+    int items;
+
+    @Param({"256"})
+    int bufferSize;
+
+    @Param({"1", "64"})
+    int requestN;
+
+    @Benchmark
+    public void submitToOnNext(Blackhole bh, OpCounters counters, LatencyHistogram latency) throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        CountDownLatch done = new CountDownLatch(1);
+        long[] received = new long[1];
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        SubmissionPublisher<Long> publisher = new SubmissionPublisher<>(executor, bufferSize);
+        try {
+            publisher.subscribe(new Flow.Subscriber<>() {
+                private Flow.Subscription subscription;
+                private int pending;
+
+                @Override
+                public void onSubscribe(Flow.Subscription subscription) {
+                    this.subscription = subscription;
+                    subscription.request(requestN);
+                }
+
+                @Override
+                public void onNext(Long submittedAt) {
+                    latency.record(System.nanoTime() - submittedAt);
+                    received[0]++;
+                    if (++pending == requestN) {
+                        pending = 0;
+                        subscription.request(requestN);
+                    }
+                }
+
+                @Override
+                public void onError(Throwable throwable) {
+                    failure.set(throwable);
+                    done.countDown();
+                }
+
+                @Override
+                public void onComplete() {
+                    done.countDown();
+                }
+            });
+
+            try {
+                for (int i = 0; i < items; i++) {
+                    publisher.submit(System.nanoTime());
+                }
+            } finally {
+                // 提前关闭是有意的：close 等已提交的元素投递完才发 onComplete，下面等 done 就是等投递结束
+                publisher.close();
+            }
+            if (!done.await(1, TimeUnit.MINUTES)) throw new IllegalStateException("Timeout waiting for onComplete");
+            // 订阅出错时让本轮失败，而不是把少收到的元素当成更低的吞吐记下来
+            if (failure.get() != null) throw new IllegalStateException("Subscriber failed", failure.get());
+            if (received[0] != items) {
+                throw new IllegalStateException("Expected " + items + " items but received " + received[0]);
+            }
+
+            bh.consume(received[0]);
+            counters.add(received[0]);
+        } finally {
+            executor.shutdown();
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package labs.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 延伸自 02-thread-basics/InterruptScenariosDemo：那里演示中断能唤醒 sleep/wait/join，这里测“多快”。
+ *
+ * 一个等待线程反复进入阻塞操作；基准线程确认它已真正阻塞（状态为 WAITING/TIMED_WAITING）后记下时间并 interrupt，
+ * 等待线程醒来（抛出 InterruptedException，或 park 返回后看到中断标记）时记录 中断 → 唤醒 的延迟。
+ *
+ * load 个忙循环平台线程在测量期间占满 CPU，模拟关闭路径在高负载下的取消速度。
+ * kind=VIRTUAL 时 {@code Object.wait} 会钉住载体线程（JDK 21），其余操作会卸载虚拟线程。
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InterruptLatencyBench {
+    public enum ThreadKind { PLATFORM, VIRTUAL }
+
+    public enum Op { SLEEP, WAIT, PARK, LOCK_INTERRUPTIBLY, TAKE, AWAIT }
+
+    @Param({"PLATFORM", "VIRTUAL"})
+    ThreadKind kind;
+
+    @Param({"SLEEP", "WAIT", "PARK", "LOCK_INTERRUPTIBLY", "TAKE", "AWAIT"})
+    Op op;
+
+    @Param({"2000"})
+    int ops;
+
+    @Param({"0"})
+    int load;
+
+    private final Object monitor = new Object();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition condition = lock.newCondition();
+    private final BlockingQueue<Object> queue = new ArrayBlockingQueue<>(1);
+
+    /** 等待线程即将进入第几轮阻塞；interruptedAt 是基准线程发出中断的时刻。 */
+    private volatile int armed;
+    private volatile int woken;
+    private volatile long interruptedAt;
+    private volatile boolean stopLoad;
+    /** 等待线程异常退出的原因；基准线程在每个等待循环里检查，避免等一个已经死掉的线程。 */
+    private volatile Throwable failure;
+
+    @Benchmark
+    public void interruptToWakeup(Blackhole bh, OpCounters counters, LatencyHistogram latency) throws Exception {
+        armed = 0;
+        woken = 0;
+        stopLoad = false;
+        failure = null;
+        Thread[] hogs = new Thread[load];
+        for (int i = 0; i < load; i++) {
+            hogs[i] = Thread.ofPlatform().daemon().name("load-" + i).start(() -> {
+                long x = 0;
+                while (!stopLoad) x++;
+                bh.consume(x);
+            });
+        }
+
+        Thread.Builder builder = kind == ThreadKind.VIRTUAL ? Thread.ofVirtual() : Thread.ofPlatform();
+        // lockInterruptibly 需要锁一直被别人持有，整个测量期间由基准线程持有
+        if (op == Op.LOCK_INTERRUPTIBLY) lock.lock();
+        try {
+            Thread waiter = builder.name("waiter").start(() -> waitLoop(latency));
+            for (int round = 1; round <= ops; round++) {
+                while (armed != round || !isBlocked(waiter)) {
+                    checkWaiter(waiter);
+                    Thread.yield();
+                }
+                interruptedAt = System.nanoTime();
+                waiter.interrupt();
+                while (woken != round) {
+                    checkWaiter(waiter);
+                    Thread.yield();
+                }
+            }
+            waiter.join();
+            counters.add(ops);
+        } finally {
+            if (op == Op.LOCK_INTERRUPTIBLY) lock.unlock();
+            stopLoad = true;
+            for (Thread hog : hogs) hog.join();
+        }
+    }
+
+    private static boolean isBlocked(Thread t) {
+        Thread.State state = t.getState();
+        return state == Thread.State.WAITING || state == Thread.State.TIMED_WAITING;
+    }
+
+    /** 等待线程失败或提前退出时抛出，让基准方法报错而不是把整个 fork 卡死。 */
+    private void checkWaiter(Thread waiter) {
+        Throwable t = failure;
+        if (t != null) throw new IllegalStateException("waiter failed", t);
+        // 正常结束的等待线程已经写过最后一轮的 woken，没写完就退出说明出了问题
+        if (!waiter.isAlive() && woken != ops) throw new IllegalStateException("waiter exited at round " + woken);
+    }
+
+    private void waitLoop(LatencyHistogram latency) {
+        try {
+            for (int round = 1; round <= ops; round++) {
+                armed = round;
+                try {
+                    block();
+                    throw new IllegalStateException(op + " returned without interrupt");
+                } catch (InterruptedException e) {
+                    latency.record(System.nanoTime() - interruptedAt);
+                }
+                woken = round;
+            }
+        } catch (Throwable t) {
+            failure = t;
+        }
+    }
+
+    private void block() throws InterruptedException {
+        switch (op) {
+            case SLEEP -> Thread.sleep(Duration.ofMinutes(1));
+            case WAIT -> {
+                synchronized (monitor) {
+                    while (true) monitor.wait();
+                }
+            }
+            case PARK -> {
+                // park 被中断时正常返回并保留中断标记，其余情况视为虚假唤醒继续 park
+                while (!Thread.interrupted()) LockSupport.park(this);
+                throw new InterruptedException();
+            }
+            case LOCK_INTERRUPTIBLY -> {
+                lock.lockInterruptibly();
+                lock.unlock();
+            }
+            case TAKE -> queue.take();
+            case AWAIT -> {
+                lock.lock();
+                try {
+                    while (true) condition.await();
+                } finally {
+                    lock.unlock();
+                }
+            }
+        }
+    }
+}
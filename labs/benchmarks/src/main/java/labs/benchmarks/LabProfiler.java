@@ -0,0 +1,141 @@
+package labs.benchmarks;
+
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.infra.IterationParams;
+import org.openjdk.jmh.profile.InternalProfiler;
+import org.openjdk.jmh.profile.ProfilerException;
+import org.openjdk.jmh.results.AggregationPolicy;
+import org.openjdk.jmh.results.IterationResult;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.ScalarResult;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 本模块自己的 JMH profiler：把 JMH 不提供的测量作为次级结果输出，和 {@code -prof gc} 的结果并列。
+ *
+ * - {@code lat.*}：{@link LatencyHistogram} 记录的逐操作延迟分位（us），每轮结束读出后清空；
+ * - {@code alloc.thread.<线程名>}：threadAlloc=true 时 {@link Workers} 里每个工作线程的分配量（KB/轮）；
+ * - 基准用 {@link #report} 报告的指标（如每线程内存占用），同一轮内多次报告取平均。
+ *
+ * 选项写在 profiler 名后面，分号分隔，BenchRunner 会自动挂上：
+ *   java -jar target/benchmarks.jar LockMatrix -prof "labs.benchmarks.LabProfiler:coInterval=100000;histogram=true"
+ *
+ * - latency=true|false：是否记录延迟（默认 true；没挂 profiler 时不记录，begin/end 也不调用 nanoTime）；
+ * - coInterval=纳秒：协调遗漏修正的期望间隔，0 表示不修正；
+ * - histogram=true：额外输出 p0/p25/p75/p95/p99.999；
+ * - threadAlloc=true：按工作线程统计分配。
+ *
+ * JMH 在子 JVM 里先构造 profiler、再执行基准的 @Setup，所以配置经静态字段交给 LatencyHistogram。
+ */
+public class LabProfiler implements InternalProfiler {
+    private static final double[] PERCENTILES = {0.50, 0.90, 0.99, 0.999, 0.9999};
+    private static final double[] EXTRA_PERCENTILES = {0.0, 0.25, 0.75, 0.95, 0.99999};
+    private static final Map<String, Gauge> GAUGES = new ConcurrentHashMap<>();
+
+    private static volatile boolean latency;
+    private static volatile long coIntervalNanos;
+    private static volatile LatencyHistogram current;
+
+    private final boolean histogram;
+
+    public LabProfiler(String initLine) throws ProfilerException {
+        boolean latencyOption = true;
+        long coIntervalOption = 0;
+        boolean histogramOption = false;
+        boolean threadAllocOption = false;
+        for (String option : initLine.split(";")) {
+            if (option.isBlank()) continue;
+            int eq = option.indexOf('=');
+            if (eq <= 0) throw new ProfilerException("Expected key=value but got " + option);
+            String value = option.substring(eq + 1).trim();
+            switch (option.substring(0, eq).trim()) {
+                case "latency" -> latencyOption = Boolean.parseBoolean(value);
+                case "coInterval" -> coIntervalOption = Long.parseLong(value.replace("_", ""));
+                case "histogram" -> histogramOption = Boolean.parseBoolean(value);
+                case "threadAlloc" -> threadAllocOption = Boolean.parseBoolean(value);
+                default -> throw new ProfilerException("Unknown option " + option);
+            }
+        }
+        if (coIntervalOption < 0) throw new ProfilerException("coInterval must be >= 0");
+
+        latency = latencyOption;
+        coIntervalNanos = coIntervalOption;
+        histogram = histogramOption;
+        if (threadAllocOption) ThreadAllocations.enable();
+    }
+
+    static boolean latencyEnabled() {
+        return latency;
+    }
+
+    static long coIntervalNanos() {
+        return coIntervalNanos;
+    }
+
+    static void attach(LatencyHistogram histogram) {
+        current = histogram;
+    }
+
+    /** 基准自报一个指标；没挂 profiler 时只是被丢弃。 */
+    static void report(String name, double value, String unit) {
+        GAUGES.merge(name, new Gauge(unit, value, 1), Gauge::plus);
+    }
+
+    @Override
+    public String getDescription() {
+        return "Per-operation latency percentiles, per-worker allocation and bench-reported gauges";
+    }
+
+    @Override
+    public void beforeIteration(BenchmarkParams benchmarkParams, IterationParams iterationParams) {
+        // 上一轮（或预热）遗留的值不计入本轮
+        ThreadAllocations.drain();
+        GAUGES.clear();
+    }
+
+    @Override
+    public Collection<? extends Result> afterIteration(BenchmarkParams benchmarkParams,
+                                                       IterationParams iterationParams, IterationResult result) {
+        List<Result> results = new ArrayList<>();
+        LatencyHistogram h = current;
+        if (h != null && h.count() > 0) {
+            for (double q : PERCENTILES) results.add(latency(q, h));
+            if (histogram) {
+                for (double q : EXTRA_PERCENTILES) results.add(latency(q, h));
+            }
+            results.add(new ScalarResult("lat.max", h.max() / 1000.0, "us", AggregationPolicy.MAX));
+            results.add(new ScalarResult("lat.count", h.count(), "#", AggregationPolicy.AVG));
+            h.reset();
+        }
+        ThreadAllocations.drain().forEach((thread, bytes) -> results.add(
+                new ScalarResult("alloc.thread." + thread, bytes / 1024.0, "KB", AggregationPolicy.AVG)));
+        for (Map.Entry<String, Gauge> e : new TreeMap<>(GAUGES).entrySet()) {
+            Gauge g = e.getValue();
+            results.add(new ScalarResult(e.getKey(), g.sum() / g.count(), g.unit(), AggregationPolicy.AVG));
+        }
+        GAUGES.clear();
+        return results;
+    }
+
+    /** 分位标签与 {@link BenchResult} 解析时一致，例如 0.999 → lat.p99.9。 */
+    static String label(double quantile) {
+        return "lat.p" + BigDecimal.valueOf(quantile).movePointRight(2).stripTrailingZeros().toPlainString();
+    }
+
+    private static Result latency(double quantile, LatencyHistogram h) {
+        return new ScalarResult(label(quantile), h.percentile(quantile) / 1000.0, "us", AggregationPolicy.AVG);
+    }
+
+    private record Gauge(String unit, double sum, long count) {
+        Gauge plus(Gauge other) {
+            return new Gauge(unit, sum + other.sum, count + other.count);
+        }
+    }
+}
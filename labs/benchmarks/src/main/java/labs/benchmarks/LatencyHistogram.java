@@ -0,0 +1,174 @@
+package labs.benchmarks;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+
+/**
+ * 对数分桶的延迟直方图（单位纳秒），思路同 HdrHistogram。
+ *
+ * - 分桶：每个 2 的幂区间再均分 32 个子桶，相对误差约 3%；
+ * - 条带：按线程 id 散列到 {@code STRIPES} 份计数数组，减少多线程记录时对同一缓存行的争用；
+ * - 内存固定：条带数 × 1888 个 long，与记录次数无关，记录路径无锁、无分配；
+ * - 协调遗漏（coordinated omission）修正：构造时给出期望间隔后，一次长停顿会按间隔补记
+ *   “本应发出却被堵住”的那些请求，避免尾延迟被闭环压测低估。
+ *
+ * 作为 JMH 状态注入到基准方法里：是否记录、协调遗漏间隔由 {@link LabProfiler} 的选项决定，
+ * 没挂这个 profiler 时不记录；每轮测量结束后由 profiler 读出分位并清空。
+ */
+@State(Scope.Benchmark)
+public class LatencyHistogram {
+    private static final int SUB_BITS = 5;
+    private static final int SUB_COUNT = 1 << SUB_BITS;
+    private static final int BUCKETS = (64 - SUB_BITS) * SUB_COUNT;
+    private static final int STRIPES = Math.min(64, Integer.highestOneBit(
+            Math.max(1, Runtime.getRuntime().availableProcessors() * 2 - 1)));
+
+    private final AtomicLongArray[] stripes = new AtomicLongArray[STRIPES];
+    private final LongAccumulator max = new LongAccumulator(Math::max, -1L);
+    private final boolean enabled;
+    private final long expectedIntervalNanos;
+
+    public LatencyHistogram() {
+        this(LabProfiler.latencyEnabled(), LabProfiler.coIntervalNanos());
+    }
+
+    /**
+     * @param expectedIntervalNanos 期望的请求间隔；大于 0 时开启协调遗漏修正
+     */
+    LatencyHistogram(boolean enabled, long expectedIntervalNanos) {
+        if (expectedIntervalNanos < 0) throw new IllegalArgumentException("expectedIntervalNanos must be >= 0");
+        this.enabled = enabled;
+        this.expectedIntervalNanos = expectedIntervalNanos;
+        for (int i = 0; i < STRIPES; i++) stripes[i] = new AtomicLongArray(BUCKETS);
+    }
+
+    /** 构造完成后再交给 profiler，避免在构造器里发布 this。 */
+    @Setup(Level.Trial)
+    public void register() {
+        LabProfiler.attach(this);
+    }
+
+    /** 关闭时不调用 nanoTime，避免纯吞吐测量被计时开销拖慢。 */
+    long begin() {
+        return enabled ? System.nanoTime() : 0L;
+    }
+
+    void end(long begin) {
+        if (enabled) record(System.nanoTime() - begin);
+    }
+
+    void record(long nanos) {
+        if (!enabled) return;
+        long value = Math.max(0L, nanos);
+        AtomicLongArray stripe = stripe();
+        stripe.getAndIncrement(indexOf(value));
+        max.accumulate(value);
+        if (expectedIntervalNanos > 0 && value >= 2 * expectedIntervalNanos) {
+            recordOmitted(stripe, value);
+        }
+    }
+
+    /**
+     * 补记被遗漏的样本 value - k*interval（k = 1..K，且不小于 interval）。
+     * 按桶计算落入数量而不是逐个循环，停顿再长也只遍历有限个桶。
+     */
+    private void recordOmitted(AtomicLongArray stripe, long value) {
+        long interval = expectedIntervalNanos;
+        long kMax = (value - interval) / interval;
+        int from = indexOf(value - kMax * interval);
+        int to = indexOf(value - interval);
+        for (int i = from; i <= to; i++) {
+            long lo = lowerBoundOf(i);
+            long hi = i + 1 < BUCKETS ? lowerBoundOf(i + 1) - 1 : Long.MAX_VALUE;
+            long kLo = Math.max(1L, ceilDiv(value - hi, interval));
+            long kHi = Math.min(kMax, Math.floorDiv(value - lo, interval));
+            if (kHi >= kLo) stripe.getAndAdd(i, kHi - kLo + 1);
+        }
+    }
+
+    private AtomicLongArray stripe() {
+        long id = Thread.currentThread().threadId();
+        return stripes[(int) ((id * 0x9E3779B97F4A7C15L) >>> 40) & (STRIPES - 1)];
+    }
+
+    boolean enabled() {
+        return enabled;
+    }
+
+    long count() {
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) total += bucket(i);
+        return total;
+    }
+
+    long max() {
+        return max.get();
+    }
+
+    /**
+     * @param quantile 0~1，例如 0.99
+     * @return 对应分位的桶中点（纳秒），不超过记录到的最大值；无记录时返回 -1
+     */
+    long percentile(double quantile) {
+        long[] merged = snapshot();
+        long total = 0;
+        for (long c : merged) total += c;
+        if (total == 0) return -1;
+        long rank = Math.max(1L, (long) Math.ceil(quantile * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += merged[i];
+            if (seen >= rank) return Math.min(midpointOf(i), Math.max(max(), lowerBoundOf(i)));
+        }
+        return max();
+    }
+
+    void reset() {
+        for (AtomicLongArray stripe : stripes) {
+            for (int i = 0; i < BUCKETS; i++) stripe.set(i, 0L);
+        }
+        max.reset();
+    }
+
+    private long[] snapshot() {
+        long[] merged = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) merged[i] = bucket(i);
+        return merged;
+    }
+
+    private long bucket(int index) {
+        long c = 0;
+        for (AtomicLongArray stripe : stripes) c += stripe.get(index);
+        return c;
+    }
+
+    private static long ceilDiv(long x, long y) {
+        return -Math.floorDiv(-x, y);
+    }
+
+    static int indexOf(long value) {
+        if (value < SUB_COUNT) return (int) value;
+        int exp = 63 - Long.numberOfLeadingZeros(value);
+        int shift = exp - SUB_BITS;
+        int sub = (int) ((value >>> shift) & (SUB_COUNT - 1));
+        return (shift + 1) * SUB_COUNT + sub;
+    }
+
+    static long lowerBoundOf(int index) {
+        if (index < SUB_COUNT) return index;
+        int shift = index / SUB_COUNT - 1;
+        int sub = index % SUB_COUNT;
+        return (long) (SUB_COUNT + sub) << shift;
+    }
+
+    static long midpointOf(int index) {
+        if (index < SUB_COUNT) return index;
+        int shift = index / SUB_COUNT - 1;
+        return lowerBoundOf(index) + ((1L << shift) >>> 1);
+    }
+}
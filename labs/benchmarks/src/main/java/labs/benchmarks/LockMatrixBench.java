@@ -0,0 +1,158 @@
+package labs.benchmarks;
+
+import labs.aqs.AqsSynchronizers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * 延伸自 04-synchronized/SynchronizedLockScopeDemo、SynchronizedAtomicityDemo：把“synchronized 能用”量化为
+ * “各种锁状态、各种争用程度下的获取成本”。
+ *
+ * 对比的锁：
+ * - synchronized：JDK 21 已没有偏向锁（JDK 15 默认关闭、18 移除），threads=1 时是轻量级（thin）锁，
+ *   有争用时膨胀为重量级 ObjectMonitor；空闲后由后台线程异步收缩（deflate）；
+ * - synchronized_inflated：测量期间另有一个线程在同一对象上 {@code wait()}，监视器保持膨胀状态，
+ *   即使 threads=1 也走 ObjectMonitor 路径，用来单独看膨胀本身的代价；
+ * - reentrant：非公平 {@link ReentrantLock}；
+ * - stamped：{@link StampedLock#writeLock()}（不可重入的独占模式）；
+ * - aqs_mutex：09-aqs-deep-dive 的 AQS 互斥锁（{@link AqsSynchronizers.Mutex}，非公平、默认自旋次数）。
+ *
+ * threads=1/2/8 分别对应无争用、轻度争用、重度争用。延迟只记“开始获取 → 获取成功”，不含临界区。
+ * kind=VIRTUAL 时，JDK 21 里在 synchronized 上阻塞、以及在 synchronized 内 park 都会钉住载体线程；
+ * holdMicros > 0 让持锁线程在临界区里 park，synchronized 与显式锁的差距会明显拉开。
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LockMatrixBench {
+    public enum LockKind { SYNCHRONIZED, SYNCHRONIZED_INFLATED, REENTRANT, STAMPED, AQS_MUTEX }
+
+    public enum ThreadKind { PLATFORM, VIRTUAL }
+
+    @Param({"SYNCHRONIZED", "SYNCHRONIZED_INFLATED", "REENTRANT", "STAMPED", "AQS_MUTEX"})
+    LockKind lock;
+
+    @Param({"PLATFORM", "VIRTUAL"})
+    ThreadKind kind;
+
+    @Param({"1", "2", "8"})
+    int threads;
+
+    @Param({"100000"})
+    int loops;
+
+    /** 临界区里额外的计算量（整数运算次数）。 */
+    @Param({"0"})
+    int work;
+
+    /** 大于 0 时持锁线程在临界区里 park 这么久，用来观察虚拟线程的钉住效应。 */
+    @Param({"0"})
+    int holdMicros;
+
+    private final Object monitor = new Object();
+    private final ReentrantLock reentrantLock = new ReentrantLock();
+    private final StampedLock stampedLock = new StampedLock();
+    private final AqsSynchronizers.Mutex mutex = new AqsSynchronizers.Mutex();
+    private long counter;
+    private long checksum;
+
+    @Benchmark
+    public void acquireRelease(Blackhole bh, OpCounters counters, LatencyHistogram latency) throws Exception {
+        counter = 0;
+        checksum = 0;
+        int perThreadLoops = holdMicros > 0 ? Math.max(1, loops / 100) : loops;
+        Thread inflater = lock == LockKind.SYNCHRONIZED_INFLATED ? startInflater() : null;
+        try {
+            Thread.Builder builder = kind == ThreadKind.VIRTUAL ? Thread.ofVirtual() : Thread.ofPlatform();
+            Workers.run(builder, threads, "lock", index -> {
+                for (int j = 0; j < perThreadLoops; j++) {
+                    long t0 = latency.begin();
+                    switch (lock) {
+                        case SYNCHRONIZED, SYNCHRONIZED_INFLATED -> {
+                            synchronized (monitor) {
+                                latency.end(t0);
+                                criticalSection();
+                            }
+                        }
+                        case REENTRANT -> {
+                            reentrantLock.lock();
+                            try {
+                                latency.end(t0);
+                                criticalSection();
+                            } finally {
+                                reentrantLock.unlock();
+                            }
+                        }
+                        case STAMPED -> {
+                            long stamp = stampedLock.writeLock();
+                            try {
+                                latency.end(t0);
+                                criticalSection();
+                            } finally {
+                                stampedLock.unlockWrite(stamp);
+                            }
+                        }
+                        case AQS_MUTEX -> {
+                            mutex.lock();
+                            try {
+                                latency.end(t0);
+                                criticalSection();
+                            } finally {
+                                mutex.unlock();
+                            }
+                        }
+                    }
+                }
+            });
+            bh.consume(counter);
+            bh.consume(checksum);
+            counters.add((long) threads * perThreadLoops);
+        } finally {
+            if (inflater != null) {
+                inflater.interrupt();
+                inflater.join();
+            }
+        }
+    }
+
+    private void criticalSection() {
+        long x = ++counter;
+        for (int i = 0; i < work; i++) {
+            x = x * 31 + i;
+        }
+        checksum ^= x;
+        if (holdMicros > 0) {
+            LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(holdMicros));
+        }
+    }
+
+    /**
+     * 启动一个在 monitor 上无限期 wait 的线程：{@code Object.wait} 必须膨胀监视器，
+     * 且有等待者的监视器不会被收缩，测量期间 synchronized 始终走重量级路径。
+     */
+    private Thread startInflater() throws InterruptedException {
+        Thread t = Thread.ofPlatform().daemon().name("inflater").start(() -> {
+            synchronized (monitor) {
+                try {
+                    while (true) monitor.wait();
+                } catch (InterruptedException e) {
+                    // 测量结束
+                }
+            }
+        });
+        while (t.getState() != Thread.State.WAITING) Thread.onSpinWait();
+        return t;
+    }
+}
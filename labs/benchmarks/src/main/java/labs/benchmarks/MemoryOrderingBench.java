@@ -0,0 +1,134 @@
+package labs.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * 延伸自 03-jmm-happens-before/VolatileVisibilityDemo、05-volatile/VolatileReorderingDemo 与
+ * 30-varhandle/VarHandleAcquireReleaseDemo：那里演示语义，这里量四种访问模式的成本。
+ *
+ * - mode：plain（get/set）、opaque（getOpaque/setOpaque）、acquire_release（getAcquire/setRelease）、volatile；
+ * - contention：none 单线程；shared 另一个线程不停写同一缓存行上相邻的 long（伪共享）；
+ *   padded 另一个线程写隔了 128 字节的 long（不同缓存行），用来扣除“多一个线程在跑”本身的影响。
+ *
+ * 延迟按每 {@link #BATCH} 次访问计时一次再除以 BATCH（单次访问远小于 nanoTime 的开销）。
+ *
+ * 读注意：plain 读在循环里可能被 JIT 提到循环外只读一次，这正是停止标志用 plain 字段会卡死的原因；
+ * 写注意：plain 连续写同一位置可能被合并成最后一次。两者的“快”都来自语义允许的优化，而不是访问本身。
+ * x86 上 opaque/acquire/release 与 plain 的差别主要是禁止这些编译器优化；volatile 写额外需要一次 StoreLoad 屏障。
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MemoryOrderingBench {
+    public enum Mode { PLAIN, OPAQUE, ACQUIRE_RELEASE, VOLATILE }
+
+    public enum Contention { NONE, SHARED, PADDED }
+
+    private static final VarHandle SLOT = MethodHandles.arrayElementVarHandle(long[].class);
+    private static final int BATCH = 1000;
+    /** 目标元素前后各留 16 个 long（128 字节），不与数组头、其他对象共享缓存行。 */
+    private static final int TARGET = 16;
+    private static final int NEIGHBOR = TARGET + 1;
+    private static final int FAR = TARGET + 16;
+
+    @Param({"PLAIN", "OPAQUE", "ACQUIRE_RELEASE", "VOLATILE"})
+    Mode mode;
+
+    @Param({"NONE", "SHARED", "PADDED"})
+    Contention contention;
+
+    @Param({"20000000"})
+    int ops;
+
+    private volatile boolean stop;
+
+    @Benchmark
+    public void read(Blackhole bh, OpCounters counters, LatencyHistogram latency) throws Exception {
+        long[] slots = new long[TARGET + 32];
+        SLOT.setVolatile(slots, TARGET, 1L);
+        Thread writer = startWriter(slots);
+        try {
+            long sum = 0;
+            for (int done = 0; done < ops; done += BATCH) {
+                long t0 = latency.begin();
+                switch (mode) {
+                    case PLAIN -> {
+                        for (int i = 0; i < BATCH; i++) sum += (long) SLOT.get(slots, TARGET);
+                    }
+                    case OPAQUE -> {
+                        for (int i = 0; i < BATCH; i++) sum += (long) SLOT.getOpaque(slots, TARGET);
+                    }
+                    case ACQUIRE_RELEASE -> {
+                        for (int i = 0; i < BATCH; i++) sum += (long) SLOT.getAcquire(slots, TARGET);
+                    }
+                    case VOLATILE -> {
+                        for (int i = 0; i < BATCH; i++) sum += (long) SLOT.getVolatile(slots, TARGET);
+                    }
+                }
+                if (latency.enabled()) latency.record((System.nanoTime() - t0) / BATCH);
+            }
+            bh.consume(sum);
+            counters.add(ops / BATCH * (long) BATCH);
+        } finally {
+            stopWriter(writer);
+        }
+    }
+
+    @Benchmark
+    public void write(Blackhole bh, OpCounters counters, LatencyHistogram latency) throws Exception {
+        long[] slots = new long[TARGET + 32];
+        Thread writer = startWriter(slots);
+        try {
+            for (int done = 0; done < ops; done += BATCH) {
+                long t0 = latency.begin();
+                switch (mode) {
+                    case PLAIN -> {
+                        for (int i = 0; i < BATCH; i++) SLOT.set(slots, TARGET, (long) (done + i));
+                    }
+                    case OPAQUE -> {
+                        for (int i = 0; i < BATCH; i++) SLOT.setOpaque(slots, TARGET, (long) (done + i));
+                    }
+                    case ACQUIRE_RELEASE -> {
+                        for (int i = 0; i < BATCH; i++) SLOT.setRelease(slots, TARGET, (long) (done + i));
+                    }
+                    case VOLATILE -> {
+                        for (int i = 0; i < BATCH; i++) SLOT.setVolatile(slots, TARGET, (long) (done + i));
+                    }
+                }
+                if (latency.enabled()) latency.record((System.nanoTime() - t0) / BATCH);
+            }
+            bh.consume((long) SLOT.getVolatile(slots, TARGET));
+            counters.add(ops / BATCH * (long) BATCH);
+        } finally {
+            stopWriter(writer);
+        }
+    }
+
+    /** 按 contention 启动干扰线程，用 setOpaque 持续写相邻或远处的元素（不能被合并掉）。 */
+    private Thread startWriter(long[] slots) {
+        if (contention == Contention.NONE) return null;
+        int index = contention == Contention.SHARED ? NEIGHBOR : FAR;
+        stop = false;
+        return Thread.ofPlatform().name("line-writer").start(() -> {
+            long v = 0;
+            while (!stop) SLOT.setOpaque(slots, index, ++v);
+        });
+    }
+
+    private void stopWriter(Thread writer) throws InterruptedException {
+        if (writer == null) return;
+        stop = true;
+        writer.join();
+    }
+}
@@ -0,0 +1,28 @@
+package labs.benchmarks;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * 逻辑操作计数。JMH 的主分数是“每秒调用次数”，而这里的一次调用通常是一整批操作（threads × loops），
+ * 基准把本次调用完成的操作数加进来，JMH 另外输出一行 {@code <方法>:ops}，单位同样是 ops/s。
+ *
+ * AuxCounters 只在 Throughput 模式下输出，所以本模块的基准都用 Throughput。
+ */
+@State(Scope.Thread)
+@AuxCounters(AuxCounters.Type.OPERATIONS)
+public class OpCounters {
+    public long ops;
+
+    @Setup(Level.Iteration)
+    public void reset() {
+        ops = 0;
+    }
+
+    void add(long n) {
+        ops += n;
+    }
+}
@@ -0,0 +1,109 @@
+package labs.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 每个“挂起不动”的线程要占多少内存：启动 count 个线程并让它们 park，
+ * 对比启动前后的进程 RSS（/proc/self/status 的 VmRSS）与 GC 后的已用堆。
+ *
+ * - 平台线程：栈是本地内存（按实际触及的页计入 RSS），堆上只有 Thread 对象本身；
+ * - 虚拟线程：park 时栈帧被拷贝成堆上的 stack chunk，主要体现在堆增量上，RSS 只随堆增长。
+ *
+ * 两个增量经 {@link LabProfiler} 报告为 {@code footprint.rss}（KB/thread，非 Linux 没有）与 {@code footprint.heap}（B/thread）；
+ * 吞吐部分是启动 count 个线程、等它们全部 park、再唤醒回收的整个周期。
+ * 这两个数字就是“每请求一个线程”设计在空闲连接上的硬成本。
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParkedThreadFootprintBench {
+    public enum ThreadKind { PLATFORM, VIRTUAL }
+
+    @Param({"PLATFORM", "VIRTUAL"})
+    ThreadKind kind;
+
+    @Param({"1000"})
+    int count;
+
+    @Param({"16"})
+    int stackDepth;
+
+    private volatile boolean release;
+
+    @Benchmark
+    public void parked(Blackhole bh, OpCounters counters) throws Exception {
+        release = false;
+        Thread.Builder builder = kind == ThreadKind.VIRTUAL ? Thread.ofVirtual() : Thread.ofPlatform();
+        long rssBefore = rssBytes();
+        long heapBefore = usedHeapAfterGc();
+
+        CountDownLatch parked = new CountDownLatch(count);
+        Thread[] all = new Thread[count];
+        for (int i = 0; i < count; i++) {
+            all[i] = builder.start(() -> parkAtDepth(stackDepth, parked));
+        }
+        parked.await();
+        // countDown 发生在 park 之前：等所有线程真正进入 WAITING（虚拟线程此时已卸载、栈帧已拷到堆上）再测量
+        for (Thread t : all) {
+            while (t.getState() != Thread.State.WAITING) Thread.yield();
+        }
+
+        long rssAfter = rssBytes();
+        long heapAfter = usedHeapAfterGc();
+        if (rssBefore >= 0) LabProfiler.report("footprint.rss", (rssAfter - rssBefore) / 1024.0 / count, "KB/thread");
+        LabProfiler.report("footprint.heap", (double) (heapAfter - heapBefore) / count, "B/thread");
+
+        release = true;
+        for (Thread t : all) LockSupport.unpark(t);
+        for (Thread t : all) t.join();
+        bh.consume(all);
+        counters.add(count);
+    }
+
+    /** 先递归到一定深度再 park，让挂起的栈有接近真实请求处理的帧数。 */
+    private void parkAtDepth(int depth, CountDownLatch parked) {
+        if (depth > 0) {
+            parkAtDepth(depth - 1, parked);
+            return;
+        }
+        parked.countDown();
+        while (!release) LockSupport.park(this);
+    }
+
+    private static long usedHeapAfterGc() {
+        System.gc();
+        System.gc();
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    /** Linux 下读取 VmRSS；其他平台返回 -1。 */
+    private static long rssBytes() {
+        Path status = Path.of("/proc/self/status");
+        if (!Files.isReadable(status)) return -1;
+        try {
+            for (String line : Files.readAllLines(status)) {
+                if (line.startsWith("VmRSS:")) {
+                    return Long.parseLong(line.replaceAll("[^0-9]", "")) * 1024;
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            return -1;
+        }
+        return -1;
+    }
+}
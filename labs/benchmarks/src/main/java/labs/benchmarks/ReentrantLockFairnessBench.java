@@ -0,0 +1,52 @@
+package labs.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 移植自 10-reentrantlock/ReentrantLockFairnessPerfDemo：公平 vs 非公平 ReentrantLock 的加锁吞吐。
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReentrantLockFairnessBench {
+    @Param({"1", "4"})
+    int threads;
+
+    @Param({"100000"})
+    int loops;
+
+    @Param({"true", "false"})
+    boolean fair;
+
+    @Benchmark
+    public void lockUnlock(Blackhole bh, OpCounters counters, LatencyHistogram latency) throws Exception {
+        ReentrantLock lock = new ReentrantLock(fair);
+        int[] counter = new int[1];
+
+        Workers.run(threads, "lock", index -> {
+            for (int j = 0; j < loops; j++) {
+                long t0 = latency.begin();
+                lock.lock();
+                try {
+                    counter[0]++;
+                } finally {
+                    lock.unlock();
+                }
+                latency.end(t0);
+            }
+        });
+
+        bh.consume(counter[0]);
+        counters.add((long) threads * loops);
+    }
+}
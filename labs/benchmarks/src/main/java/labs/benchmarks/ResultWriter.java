@@ -0,0 +1,141 @@
+package labs.benchmarks;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 把 {@link BenchResult} 写成机器可读的 JSON 或 CSV，附带 JDK/CPU/JVM 参数等运行环境，
+ * 方便跨 JDK 版本、跨机器 diff，而不是对着 stdout 目测。
+ */
+final class ResultWriter {
+    enum Format { TEXT, JSON, CSV }
+
+    private ResultWriter() {
+    }
+
+    static Map<String, String> environment(List<String> jvmArgs) {
+        Map<String, String> env = new LinkedHashMap<>();
+        env.put("timestamp", Instant.now().toString());
+        env.put("jdk", System.getProperty("java.version"));
+        env.put("vm", System.getProperty("java.vm.name") + " " + System.getProperty("java.vm.version"));
+        env.put("os", System.getProperty("os.name") + " " + System.getProperty("os.arch"));
+        env.put("cpus", String.valueOf(Runtime.getRuntime().availableProcessors()));
+        env.put("jvmArgs", String.join(" ", jvmArgs.isEmpty()
+                ? ManagementFactory.getRuntimeMXBean().getInputArguments() : jvmArgs));
+        return env;
+    }
+
+    static void write(Format format, Path file, Map<String, String> env, List<BenchResult> results)
+            throws IOException {
+        try (Writer out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            switch (format) {
+                case JSON -> writeJson(out, env, results);
+                case CSV -> writeCsv(out, env, results);
+                case TEXT -> writeText(out, results);
+            }
+        }
+    }
+
+    static void writeText(Appendable out, List<BenchResult> results) throws IOException {
+        out.append(String.format(Locale.ROOT, "%-44s %-44s %4s %14s %12s %10s %10s %10s %10s %12s %12s%n",
+                "Benchmark", "Params", "Cnt", "Score(ops/s)", "Error(sd)", "p50(us)", "p99(us)", "p999(us)",
+                "max(us)", "alloc(B/op)", "gc(n/ms)"));
+        for (BenchResult r : results) {
+            out.append(String.format(Locale.ROOT, "%-44s %-44s %4d %14.1f %12.1f %10s %10s %10s %10s %12s %12s%n",
+                    r.benchmark(), r.params(), r.samples(), r.opsPerSec(), r.opsPerSecSd(),
+                    micros(r.p50Nanos()), micros(r.p99Nanos()), micros(r.p999Nanos()), micros(r.maxNanos()),
+                    r.allocBytesPerOp() < 0 ? "n/a" : String.format(Locale.ROOT, "%.1f", r.allocBytesPerOp()),
+                    r.gcCount() + "/" + r.gcTimeMs()));
+        }
+    }
+
+    private static String micros(long nanos) {
+        return nanos < 0 ? "n/a" : String.format(Locale.ROOT, "%.2f", nanos / 1000.0);
+    }
+
+    private static void writeJson(Writer out, Map<String, String> env, List<BenchResult> results)
+            throws IOException {
+        out.write("{\n  \"env\": ");
+        out.write(jsonObject(env));
+        out.write(",\n  \"results\": [");
+        for (int i = 0; i < results.size(); i++) {
+            BenchResult r = results.get(i);
+            out.write(i == 0 ? "\n" : ",\n");
+            out.write(String.format(Locale.ROOT,
+                    "    {\"benchmark\": %s, \"params\": %s, \"samples\": %d, \"opsPerSec\": %.3f, "
+                            + "\"opsPerSecSd\": %.3f, \"p50Nanos\": %d, \"p90Nanos\": %d, \"p99Nanos\": %d, "
+                            + "\"p999Nanos\": %d, \"p9999Nanos\": %d, \"maxNanos\": %d, "
+                            + "\"latencyCount\": %d, \"allocBytesPerSec\": %.3f, \"allocBytesPerOp\": %.3f, "
+                            + "\"gcCount\": %d, \"gcTimeMs\": %d}",
+                    quote(r.benchmark()), jsonObject(r.params()), r.samples(), r.opsPerSec(), r.opsPerSecSd(),
+                    r.p50Nanos(), r.p90Nanos(), r.p99Nanos(), r.p999Nanos(), r.p9999Nanos(), r.maxNanos(),
+                    r.latencyCount(),
+                    r.allocBytesPerSec(), r.allocBytesPerOp(), r.gcCount(), r.gcTimeMs()));
+        }
+        out.write("\n  ]\n}\n");
+    }
+
+    private static void writeCsv(Writer out, Map<String, String> env, List<BenchResult> results)
+            throws IOException {
+        out.write("benchmark,params,samples,opsPerSec,opsPerSecSd,p50Nanos,p90Nanos,p99Nanos,p999Nanos,p9999Nanos,"
+                + "maxNanos,latencyCount,allocBytesPerSec,allocBytesPerOp,gcCount,gcTimeMs,jdk,cpus,jvmArgs,timestamp\n");
+        for (BenchResult r : results) {
+            out.write(String.format(Locale.ROOT, "%s,%s,%d,%.3f,%.3f,%d,%d,%d,%d,%d,%d,%d,%.3f,%.3f,%d,%d,%s,%s,%s,%s%n",
+                    csv(r.benchmark()), csv(paramString(r.params())), r.samples(), r.opsPerSec(), r.opsPerSecSd(),
+                    r.p50Nanos(), r.p90Nanos(), r.p99Nanos(), r.p999Nanos(), r.p9999Nanos(), r.maxNanos(),
+                    r.latencyCount(),
+                    r.allocBytesPerSec(), r.allocBytesPerOp(), r.gcCount(), r.gcTimeMs(),
+                    csv(env.get("jdk")), csv(env.get("cpus")), csv(env.get("jvmArgs")), csv(env.get("timestamp"))));
+        }
+    }
+
+    static String paramString(Map<String, String> params) {
+        StringBuilder sb = new StringBuilder();
+        params.forEach((k, v) -> {
+            if (sb.length() > 0) sb.append(';');
+            sb.append(k).append('=').append(v);
+        });
+        return sb.toString();
+    }
+
+    private static String jsonObject(Map<String, String> map) {
+        StringBuilder sb = new StringBuilder("{");
+        map.forEach((k, v) -> {
+            if (sb.length() > 1) sb.append(", ");
+            sb.append(quote(k)).append(": ").append(quote(v));
+        });
+        return sb.append('}').toString();
+    }
+
+    private static String quote(String s) {
+        StringBuilder sb = new StringBuilder("\"");
+        for (char c : s.toCharArray()) {
+            switch (c) {
+                case '"' -> sb.append("\\\"");
+                case '\\' -> sb.append("\\\\");
+                case '\n' -> sb.append("\\n");
+                case '\r' -> sb.append("\\r");
+                case '\t' -> sb.append("\\t");
+                default -> {
+                    if (c < 0x20) sb.append(String.format(Locale.ROOT, "\\u%04x", (int) c));
+                    else sb.append(c);
+                }
+            }
+        }
+        return sb.append('"').toString();
+    }
+
+    private static String csv(String s) {
+        if (s.indexOf(',') < 0 && s.indexOf('"') < 0 && s.indexOf('\n') < 0) return s;
+        return '"' + s.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,48 @@
+package labs.benchmarks;
+
+import labs.aqs.AqsSynchronizers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * 移植自 09-aqs-deep-dive/SimpleAqsMutexDemo：基于 AQS 的不可重入互斥锁（{@link AqsSynchronizers.Mutex}）的加锁吞吐。
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SimpleAqsMutexBench {
+    @Param({"1", "4"})
+    int threads;
+
+    @Param({"200000"})
+    int loops;
+
+    @Benchmark
+    public void lockUnlock(Blackhole bh, OpCounters counters, LatencyHistogram latency) throws Exception {
+        AqsSynchronizers.Mutex mutex = new AqsSynchronizers.Mutex();
+        int[] counter = new int[1];
+
+        Workers.run(threads, "mutex", index -> {
+            for (int j = 0; j < loops; j++) {
+                long t0 = latency.begin();
+                mutex.lock();
+                try {
+                    counter[0]++;
+                } finally {
+                    mutex.unlock();
+                }
+                latency.end(t0);
+            }
+        });
+
+        bh.consume(counter[0]);
+        counters.add((long) threads * loops);
+    }
+}
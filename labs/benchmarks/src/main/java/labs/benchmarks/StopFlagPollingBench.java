@@ -0,0 +1,209 @@
+package labs.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 延伸自 05-volatile/VolatileStopFlagDemo 与 07-atomicity-visibility-ordering/VisibilitySummaryDemo：
+ * 那里的 Worker 每轮都检查停止标志，这里量“检查的代价”与“停下来有多快”。
+ *
+ * - mode：none（不检查，吞吐基线）、volatile、opaque（{@code VarHandle.getOpaque}）、
+ *   plain_spin_wait（普通读 + {@link Thread#onSpinWait()}）、interrupt（{@code Thread.isInterrupted()}）；
+ * - every：每多少次迭代检查一次（2 的幂），1 即每轮都检查。
+ *
+ * 方法：
+ * - {@code poll}：跑固定 ops 次迭代，标志永远不置位，Score 与 none 的差距就是检查开销；
+ * - {@code stopLatency}：工作线程跑起来后随机等 0~{@code signalDelayMicros} 微秒发出停止信号，
+ *   延迟记录“发出信号 → 工作线程退出循环”。mode=NONE 无法停止，此方法不适用，直接返回、不计操作数。
+ *
+ * 纯 plain 读不在对比之列：JIT 可以把它提到循环外，工作线程可能永远停不下来（见 VolatileStopFlagDemo）。
+ * 超过 {@link #STUCK_MILLIS} 仍未退出的工作线程计为 stuck：主线程置位 {@code abandon} 让它退出并 join，
+ * 再开始下一轮，免得它在后续的样本与参数组合里一直占着一个核。
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StopFlagPollingBench {
+    public enum Mode { NONE, VOLATILE, OPAQUE, PLAIN_SPIN_WAIT, INTERRUPT }
+
+    private static final VarHandle OPAQUE_STOP;
+    private static final long STUCK_MILLIS = 1_000;
+    /** 每隔多少次迭代检查一次 {@code abandon}；是所有 every 的倍数，不打乱模式自身的检查位置。 */
+    private static final long CHUNK = 1 << 16;
+
+    static {
+        try {
+            OPAQUE_STOP = MethodHandles.lookup().findVarHandle(StopFlagPollingBench.class, "opaqueStop", boolean.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    @Param({"NONE", "VOLATILE", "OPAQUE", "PLAIN_SPIN_WAIT", "INTERRUPT"})
+    Mode mode;
+
+    @Param({"1", "64", "4096"})
+    int every;
+
+    @Param({"50000000"})
+    int ops;
+
+    @Param({"200"})
+    int stops;
+
+    @Param({"500"})
+    int signalDelayMicros;
+
+    private volatile boolean volatileStop;
+    private boolean opaqueStop;
+    private boolean plainStop;
+    /** 工作线程进入循环后置位，主线程据此开始计时。 */
+    private volatile boolean running;
+    private volatile long exitedAt;
+    /** 只用来回收 stuck 的工作线程，不参与被测的停止信号。 */
+    private volatile boolean abandon;
+
+    @Benchmark
+    public void poll(Blackhole bh, OpCounters counters) {
+        int mask = mask();
+        resetFlags();
+        bh.consume(spin(mask, ops));
+        counters.add(ops);
+    }
+
+    @Benchmark
+    public void stopLatency(Blackhole bh, OpCounters counters, LatencyHistogram latency) throws Exception {
+        if (mode == Mode.NONE) return;
+        int mask = mask();
+        int stuck = 0;
+        for (int s = 0; s < stops; s++) {
+            resetFlags();
+            running = false;
+            exitedAt = 0;
+            Thread worker = Thread.ofPlatform().daemon().name("spinner").start(() -> {
+                running = true;
+                bh.consume(spin(mask, Long.MAX_VALUE));
+                exitedAt = System.nanoTime();
+            });
+            while (!running) Thread.onSpinWait();
+            long until = System.nanoTime() + TimeUnit.MICROSECONDS.toNanos(
+                    ThreadLocalRandom.current().nextInt(signalDelayMicros + 1));
+            while (System.nanoTime() < until) Thread.onSpinWait();
+
+            long signalledAt = System.nanoTime();
+            signal(worker);
+            worker.join(STUCK_MILLIS);
+            if (worker.isAlive()) {
+                stuck++;
+                abandon = true;
+                worker.join(STUCK_MILLIS);
+                abandon = false;
+                if (worker.isAlive()) throw new IllegalStateException("stuck worker ignored abandon");
+                continue;
+            }
+            latency.record(exitedAt - signalledAt);
+        }
+        if (stuck > 0) System.out.println("    stuck=" + stuck + " (worker did not observe the stop signal)");
+        counters.add(stops - stuck);
+    }
+
+    /** 每轮一次廉价的 xorshift，代表“长 CPU 循环”里的一小步工作。 */
+    private long spin(int mask, long limit) {
+        long x = 0x9E3779B97F4A7C15L;
+        long i = 0;
+        // 每种 mode 单独一个循环，检查代码不带分派开销，JIT 看到的就是该模式的真实形状；
+        // 外层按 CHUNK 分段只为响应 abandon，对内层循环的影响可以忽略
+        switch (mode) {
+            case NONE -> {
+                while (i < limit && !abandon) {
+                    for (long end = Math.min(limit, i + CHUNK); i < end; i++) x = step(x);
+                }
+            }
+            case VOLATILE -> {
+                chunks:
+                while (i < limit && !abandon) {
+                    for (long end = Math.min(limit, i + CHUNK); i < end; i++) {
+                        x = step(x);
+                        if ((i & mask) == 0 && volatileStop) break chunks;
+                    }
+                }
+            }
+            case OPAQUE -> {
+                chunks:
+                while (i < limit && !abandon) {
+                    for (long end = Math.min(limit, i + CHUNK); i < end; i++) {
+                        x = step(x);
+                        if ((i & mask) == 0 && (boolean) OPAQUE_STOP.getOpaque(this)) break chunks;
+                    }
+                }
+            }
+            case PLAIN_SPIN_WAIT -> {
+                chunks:
+                while (i < limit && !abandon) {
+                    for (long end = Math.min(limit, i + CHUNK); i < end; i++) {
+                        x = step(x);
+                        if ((i & mask) == 0) {
+                            if (plainStop) break chunks;
+                            Thread.onSpinWait();
+                        }
+                    }
+                }
+            }
+            case INTERRUPT -> {
+                Thread self = Thread.currentThread();
+                chunks:
+                while (i < limit && !abandon) {
+                    for (long end = Math.min(limit, i + CHUNK); i < end; i++) {
+                        x = step(x);
+                        if ((i & mask) == 0 && self.isInterrupted()) break chunks;
+                    }
+                }
+            }
+        }
+        return x;
+    }
+
+    private static long step(long x) {
+        x ^= x << 13;
+        x ^= x >>> 7;
+        x ^= x << 17;
+        return x;
+    }
+
+    private void signal(Thread worker) {
+        switch (mode) {
+            case NONE -> {
+            }
+            case VOLATILE -> volatileStop = true;
+            case OPAQUE -> OPAQUE_STOP.setOpaque(this, true);
+            case PLAIN_SPIN_WAIT -> plainStop = true;
+            case INTERRUPT -> worker.interrupt();
+        }
+    }
+
+    private void resetFlags() {
+        volatileStop = false;
+        OPAQUE_STOP.setOpaque(this, false);
+        // stopLatency 之后才 start 工作线程，start 建立 happens-before，普通写的复位一定可见
+        plainStop = false;
+    }
+
+    private int mask() {
+        if (Integer.bitCount(every) != 1 || every > CHUNK) {
+            throw new IllegalArgumentException("every must be a power of two <= " + CHUNK + ": " + every);
+        }
+        return every - 1;
+    }
+}
@@ -0,0 +1,49 @@
+package labs.benchmarks;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 按线程名累计堆分配字节数（{@link LabProfiler} 的 threadAlloc 选项，BenchRunner 的 {@code -prof gc} 会打开）。
+ *
+ * {@link Workers} 在每个工作线程开始/结束时读取 {@code getCurrentThreadAllocatedBytes()}，
+ * 差值记到这里；profiler 每轮测量结束后 {@link #drain()} 一次。
+ */
+final class ThreadAllocations {
+    private static final com.sun.management.ThreadMXBean MX = ManagementFactory.getThreadMXBean()
+            instanceof com.sun.management.ThreadMXBean mx && mx.isThreadAllocatedMemorySupported() ? mx : null;
+    private static final Map<String, LongAdder> BYTES = new ConcurrentHashMap<>();
+    private static volatile boolean enabled;
+
+    private ThreadAllocations() {
+    }
+
+    static void enable() {
+        enabled = MX != null;
+    }
+
+    static boolean enabled() {
+        return enabled;
+    }
+
+    static long currentThreadBytes() {
+        return enabled ? MX.getCurrentThreadAllocatedBytes() : 0L;
+    }
+
+    static void record(String thread, long bytes) {
+        if (enabled) BYTES.computeIfAbsent(thread, k -> new LongAdder()).add(bytes);
+    }
+
+    /** 取出并清空当前累计值，按线程名排序。 */
+    static Map<String, Long> drain() {
+        Map<String, Long> result = new TreeMap<>();
+        for (String name : BYTES.keySet()) {
+            LongAdder adder = BYTES.remove(name);
+            if (adder != null) result.merge(name, adder.sum(), Long::sum);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,139 @@
+package labs.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 延伸自 02-thread-basics/ThreadStateTransitionsDemo 与 JoinSleepYieldDaemonDemo：
+ * 那两个实验只打印状态变化，这里给每种状态转换量出单次成本。
+ *
+ * - startJoin：创建、start、join 一个空线程（NEW → RUNNABLE → TERMINATED），在基准线程里逐次计时；
+ * - yield / sleepZero：threads 个同类线程各自循环调用 {@code Thread.yield()} / {@code Thread.sleep(0)}；
+ * - sleepShort：{@code sleep(sleepMicros)}，延迟分位减去 sleepMicros 就是定时器与调度带来的超时；
+ * - parkUnpark：两个线程互相 unpark 对方再 park 自己，记录一次往返。
+ *
+ * kind=VIRTUAL 时被测线程都是虚拟线程：park/unpark 变成在载体线程上卸载、重新调度 continuation。
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ThreadLifecycleBench {
+    public enum ThreadKind { PLATFORM, VIRTUAL }
+
+    @Param({"PLATFORM", "VIRTUAL"})
+    ThreadKind kind;
+
+    @Param({"20000"})
+    int ops;
+
+    @Param({"1"})
+    int threads;
+
+    @Param({"100"})
+    int sleepMicros;
+
+    @Param({"1000"})
+    int sleepOps;
+
+    private Thread.Builder builder() {
+        return kind == ThreadKind.VIRTUAL ? Thread.ofVirtual() : Thread.ofPlatform();
+    }
+
+    @Benchmark
+    public void startJoin(Blackhole bh, OpCounters counters, LatencyHistogram latency) throws Exception {
+        Thread.Builder builder = builder();
+        Runnable empty = () -> { };
+        for (int i = 0; i < ops; i++) {
+            long t0 = latency.begin();
+            Thread t = builder.start(empty);
+            t.join();
+            latency.end(t0);
+            bh.consume(t);
+        }
+        counters.add(ops);
+    }
+
+    @Benchmark
+    public void yield(Blackhole bh, OpCounters counters, LatencyHistogram latency) throws Exception {
+        Workers.run(builder(), threads, "yield", index -> {
+            for (int i = 0; i < ops; i++) {
+                long t0 = latency.begin();
+                Thread.yield();
+                latency.end(t0);
+            }
+        });
+        counters.add((long) threads * ops);
+    }
+
+    @Benchmark
+    public void sleepZero(Blackhole bh, OpCounters counters, LatencyHistogram latency) throws Exception {
+        Workers.run(builder(), threads, "sleep0", index -> {
+            for (int i = 0; i < ops; i++) {
+                long t0 = latency.begin();
+                Thread.sleep(0);
+                latency.end(t0);
+            }
+        });
+        counters.add((long) threads * ops);
+    }
+
+    @Benchmark
+    public void sleepShort(Blackhole bh, OpCounters counters, LatencyHistogram latency) throws Exception {
+        Duration duration = Duration.ofNanos(sleepMicros * 1_000L);
+        Workers.run(builder(), threads, "sleep", index -> {
+            for (int i = 0; i < sleepOps; i++) {
+                long t0 = latency.begin();
+                Thread.sleep(duration);
+                latency.end(t0);
+            }
+        });
+        counters.add((long) threads * sleepOps);
+    }
+
+    /**
+     * 乒乓：turn 表示轮到谁，park 醒来后必须重新检查（park 允许虚假唤醒）。
+     * ping 端计时，一次往返 = unpark 对方 + 对方醒来 + 对方 unpark 回来 + 自己醒来。
+     */
+    @Benchmark
+    public void parkUnpark(Blackhole bh, OpCounters counters, LatencyHistogram latency) throws Exception {
+        PingPong game = new PingPong();
+        Workers.run(builder(), 2, "park", index -> {
+            game.players[index] = Thread.currentThread();
+            game.joined.countDown();
+            game.joined.await();
+            Thread other = game.players[1 - index];
+            for (int i = 0; i < ops; i++) {
+                if (index == 0) {
+                    long t0 = latency.begin();
+                    game.turn = 1;
+                    LockSupport.unpark(other);
+                    while (game.turn != 0) LockSupport.park(game);
+                    latency.end(t0);
+                } else {
+                    while (game.turn != 1) LockSupport.park(game);
+                    game.turn = 0;
+                    LockSupport.unpark(other);
+                }
+            }
+        });
+        bh.consume(game.turn);
+        counters.add(ops);
+    }
+
+    static final class PingPong {
+        final Thread[] players = new Thread[2];
+        final CountDownLatch joined = new CountDownLatch(2);
+        volatile int turn;
+    }
+}
@@ -0,0 +1,110 @@
+package labs.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 延伸自 21-threadpoolexecutor/ThreadPoolExecutorSizingDemo：按固定节奏提交任务（开环），
+ * 观察 core/max/队列容量对排队延迟与拒绝数的影响。
+ *
+ * 延迟从“计划提交时刻”算起，而不是实际调用 execute 的时刻：提交线程自己被拖慢时，
+ * 这段等待仍然计入结果——这是开环压测里规避协调遗漏的做法。
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ThreadPoolExecutorBench {
+    @Param({"2"})
+    int corePoolSize;
+
+    @Param({"4"})
+    int maxPoolSize;
+
+    @Param({"64"})
+    int queueCapacity;
+
+    @Param({"20000"})
+    int tasks;
+
+    @Param({"50"})
+    int intervalMicros;
+
+    @Param({"20"})
+    int serviceMicros;
+
+    @Benchmark
+    public void scheduledArrivals(Blackhole bh, OpCounters counters, LatencyHistogram latency) throws Exception {
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(
+                corePoolSize,
+                maxPoolSize,
+                1,
+                TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+        CountDownLatch done = new CountDownLatch(tasks);
+        LongAdder rejected = new LongAdder();
+        long interval = TimeUnit.MICROSECONDS.toNanos(intervalMicros);
+        long service = TimeUnit.MICROSECONDS.toNanos(serviceMicros);
+
+        try {
+            long start = System.nanoTime();
+            for (int i = 0; i < tasks; i++) {
+                long intended = start + i * interval;
+                waitUntil(intended);
+                try {
+                    pool.execute(() -> {
+                        spin(service);
+                        latency.record(System.nanoTime() - intended);
+                        done.countDown();
+                    });
+                } catch (RejectedExecutionException e) {
+                    rejected.increment();
+                    done.countDown();
+                }
+            }
+            done.await();
+
+            LabProfiler.report("rejected", rejected.sum(), "tasks");
+            LabProfiler.report("largestPoolSize", pool.getLargestPoolSize(), "threads");
+            bh.consume(rejected.sum());
+            counters.add(tasks - rejected.sum());
+        } finally {
+            pool.shutdown();
+            pool.awaitTermination(1, TimeUnit.MINUTES);
+        }
+    }
+
+    private static void waitUntil(long deadline) {
+        long remaining;
+        while ((remaining = deadline - System.nanoTime()) > 0) {
+            if (remaining > 100_000) {
+                LockSupport.parkNanos(remaining - 50_000);
+            } else {
+                Thread.onSpinWait();
+            }
+        }
+    }
+
+    private static void spin(long nanos) {
+        long end = System.nanoTime() + nanos;
+        while (System.nanoTime() < end) {
+            Thread.onSpinWait();
+        }
+    }
+}
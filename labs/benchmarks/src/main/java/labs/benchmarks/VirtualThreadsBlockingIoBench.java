@@ -0,0 +1,69 @@
+package labs.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 移植自 28-virtual-threads/VirtualThreadsBlockingIoDemo：阻塞任务在平台线程池与虚拟线程下的吞吐。
+ *
+ * 延迟记录的是任务从提交到完成的时间，poolSize 偏小时平台线程的排队会直接体现在尾延迟上。
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class VirtualThreadsBlockingIoBench {
+    public enum ExecutorKind { PLATFORM, VIRTUAL }
+
+    @Param({"PLATFORM", "VIRTUAL"})
+    ExecutorKind executor;
+
+    @Param({"2000"})
+    int tasks;
+
+    @Param({"50"})
+    int sleepMs;
+
+    @Param({"64"})
+    int poolSize;
+
+    @Benchmark
+    public void blockingTasks(Blackhole bh, OpCounters counters, LatencyHistogram latency) throws Exception {
+        ExecutorService pool = executor == ExecutorKind.VIRTUAL
+                ? Executors.newVirtualThreadPerTaskExecutor()
+                : Executors.newFixedThreadPool(poolSize);
+        try {
+            CountDownLatch latch = new CountDownLatch(tasks);
+            for (int i = 0; i < tasks; i++) {
+                long submitted = System.nanoTime();
+                pool.execute(() -> {
+                    try {
+                        Thread.sleep(sleepMs);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } finally {
+                        latency.record(System.nanoTime() - submitted);
+                        latch.countDown();
+                    }
+                });
+            }
+            latch.await();
+            bh.consume(latch.getCount());
+            counters.add(tasks);
+        } finally {
+            pool.shutdown();
+            pool.awaitTermination(1, TimeUnit.MINUTES);
+        }
+    }
+}
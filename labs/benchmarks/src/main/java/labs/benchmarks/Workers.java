@@ -0,0 +1,69 @@
+package labs.benchmarks;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 基准里常用的“起跑门 + 终点门”线程组，对应各实验 main 里手写的 start/done 两个 CountDownLatch。
+ *
+ * 所有线程就绪后才打开起跑门，让它们同时开始争用；JMH 的计时覆盖整次调用，线程创建与启动也算在内，
+ * 所以每次调用的批量（loops 等参数）要足够大，把这部分摊薄。
+ * {@code threadAlloc} 打开时还会把每个线程在 body 里的堆分配字节数记到 {@link ThreadAllocations}。
+ */
+final class Workers {
+    private Workers() {
+    }
+
+    @FunctionalInterface
+    interface Body {
+        void run(int index) throws Exception;
+    }
+
+    static void run(int threads, String namePrefix, Body body) throws InterruptedException {
+        run(Thread.ofPlatform(), threads, namePrefix, body);
+    }
+
+    /** 同上，但用给定的 builder 创建线程，例如 {@code Thread.ofVirtual()}。 */
+    static void run(Thread.Builder builder, int threads, String namePrefix, Body body) throws InterruptedException {
+        CountDownLatch ready = new CountDownLatch(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        for (int i = 0; i < threads; i++) {
+            int index = i;
+            String name = namePrefix + "-" + i;
+            builder.name(name).start(() -> {
+                ready.countDown();
+                long allocBefore = 0;
+                try {
+                    start.await();
+                    allocBefore = ThreadAllocations.currentThreadBytes();
+                    body.run(index);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (Throwable e) {
+                    failure.compareAndSet(null, e);
+                } finally {
+                    ThreadAllocations.record(name, ThreadAllocations.currentThreadBytes() - allocBefore);
+                    done.countDown();
+                }
+            });
+        }
+
+        ready.await();
+        start.countDown();
+        done.await();
+
+        Throwable error = failure.get();
+        if (error != null) {
+            throw new IllegalStateException("worker failed: " + error, error);
+        }
+    }
+
+    static int workCount(int total, int workers, int index) {
+        int base = total / workers;
+        int remainder = total % workers;
+        return index == workers - 1 ? base + remainder : base;
+    }
+}